@@ -0,0 +1,194 @@
+/**
+ * A way of deciding which pixels of a picture are on an edge, for
+ * 	Picture.showEdges. An operator fills in a mask with the same row-major
+ * 	layout as the raster, black for each pixel on an edge and white for
+ * 	the others, one band of rows at a time, so bands can be filled in
+ * 	parallel. Every row is read straight from the packed raster and only
+ * 	the rows of its band are written.
+ *
+ * Three operators are provided:
+ *
+ * 	(a) EdgeOperator.NEIGHBOR: the operator of Picture.showEdges(threshold).
+ * 		A pixel is on an edge if its color distance from the pixel to its
+ * 		left or the pixel to its north, rounded down, is more than the
+ * 		threshold. The pixel at (0, 0) is always white.
+ * 	(b) EdgeOperator.SOBEL: the Sobel operator, applied to red, green and
+ * 		blue separately. Each channel is smoothed across the direction of
+ * 		the difference with weights 1, 2, 1.
+ * 	(c) EdgeOperator.SCHARR: the Scharr operator, the same with weights
+ * 		3, 10, 3, which treats every direction of edge more evenly.
+ *
+ * For Sobel and Scharr the horizontal and vertical differences of all
+ * 	three channels form one gradient, scaled to the change in color per
+ * 	pixel so that thresholds mean about the same as for NEIGHBOR. A pixel
+ * 	is on an edge if the length of the gradient, rounded down, is more
+ * 	than the threshold. Pixels past the edges of the picture are taken to
+ * 	be the edge pixel itself.
+ */
+public interface EdgeOperator
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	/** Mask value of a pixel on an edge. */
+	public static final int EDGE = 0xff000000;
+
+	/** Mask value of a pixel not on an edge. */
+	public static final int NO_EDGE = 0xffffffff;
+
+	public static final EdgeOperator NEIGHBOR = new Neighbor();
+	public static final EdgeOperator SOBEL = new Smoothed(1, 2, "Sobel");
+	public static final EdgeOperator SCHARR = new Smoothed(3, 10, "Scharr");
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Fills in the mask of the rows from top to bottom.
+	 *
+	 * @param pixels The color values of the picture, in row-major order.
+	 * @param width The width of the picture.
+	 * @param height The height of the picture.
+	 * @param top The first row to fill in.
+	 * @param bottom One past the last row to fill in.
+	 * @param threshold Threshold to use to determine the presence of edges.
+	 * @param edges The mask to fill, in row-major order.
+	 */
+	public void findEdges(int[] pixels, int width, int height, int top,
+			int bottom, int threshold, int[] edges);
+
+	///////////////////////////// Implementations /////////////////////////////
+
+	/**
+	 * The comparison with the pixels to the left and north.
+	 */
+	static class Neighbor implements EdgeOperator
+	{
+		public void findEdges(int[] pixels, int width, int height, int top,
+				int bottom, int threshold, int[] edges) {
+			long limit = Pixel.distanceLimitAbove(threshold);
+			for (int y = top; y < bottom; y++) {
+				int offset = y * width;
+				if (y == 0) {
+					// The top row only has pixels to the left.
+					edges[0] = NO_EDGE;
+					for (int x = 1; x < width; x++)
+						edges[x] = Pixel.colorDistanceSquared(pixels[x],
+								pixels[x - 1]) >= limit ? EDGE : NO_EDGE;
+					continue;
+				}
+
+				// The first column only has a pixel to the north.
+				edges[offset] = Pixel.colorDistanceSquared(pixels[offset],
+						pixels[offset - width]) >= limit ? EDGE : NO_EDGE;
+				for (int i = offset + 1; i < offset + width; i++) {
+					int value = pixels[i];
+					edges[i] = Pixel.colorDistanceSquared(value, pixels[i - 1]) >= limit
+							|| Pixel.colorDistanceSquared(value, pixels[i - width]) >= limit
+							? EDGE : NO_EDGE;
+				}
+			}
+		}
+
+		public String toString() { return "neighbor"; }
+	}
+
+	/**
+	 * A 3 by 3 gradient operator that takes differences two pixels apart
+	 * 	and smooths them across with weights side, center, side. Both
+	 * 	passes are separable: for each row, the three rows around it are
+	 * 	first combined column by column, then along the row.
+	 */
+	static class Smoothed implements EdgeOperator
+	{
+		/** Largest squared gradient, per pixel, that can occur. */
+		private static final long MAX_SQUARED = 6L * 255 * 255;
+
+		private int side;
+		private int center;
+		private String name;
+
+		/**
+		 * The gradient is divided by this to give the change per pixel: the
+		 * 	differences are two pixels apart and smoothed by weights that
+		 * 	add up to 2 * side + center.
+		 */
+		private int scale;
+
+		Smoothed(int side, int center, String name) {
+			this.side = side;
+			this.center = center;
+			this.name = name;
+			this.scale = 2 * (2 * side + center);
+		}
+
+		public void findEdges(int[] pixels, int width, int height, int top,
+				int bottom, int threshold, int[] edges) {
+			long limit = Pixel.distanceLimitAbove(threshold);
+			// Compare the unscaled gradient with the limit scaled up instead.
+			long scaledLimit = limit > MAX_SQUARED ? Long.MAX_VALUE
+					: limit * scale * scale;
+
+			// The rows combined column by column: smoothed across for the
+			// horizontal difference, differenced for the vertical one.
+			int[] smoothRed = new int[width];
+			int[] smoothGreen = new int[width];
+			int[] smoothBlue = new int[width];
+			int[] diffRed = new int[width];
+			int[] diffGreen = new int[width];
+			int[] diffBlue = new int[width];
+
+			for (int y = top; y < bottom; y++) {
+				int above = Math.max(y - 1, 0) * width;
+				int here = y * width;
+				int below = Math.min(y + 1, height - 1) * width;
+				for (int x = 0; x < width; x++) {
+					int north = pixels[above + x];
+					int value = pixels[here + x];
+					int south = pixels[below + x];
+					smoothRed[x] = side * ((north >> 16) & 0xff)
+							+ center * ((value >> 16) & 0xff) + side * ((south >> 16) & 0xff);
+					smoothGreen[x] = side * ((north >> 8) & 0xff)
+							+ center * ((value >> 8) & 0xff) + side * ((south >> 8) & 0xff);
+					smoothBlue[x] = side * (north & 0xff)
+							+ center * (value & 0xff) + side * (south & 0xff);
+					diffRed[x] = ((south >> 16) & 0xff) - ((north >> 16) & 0xff);
+					diffGreen[x] = ((south >> 8) & 0xff) - ((north >> 8) & 0xff);
+					diffBlue[x] = (south & 0xff) - (north & 0xff);
+				}
+
+				// The squared gradient is at most 6 * (16 * 255)^2 for Scharr,
+				// so it fits in an int. The end columns are done after the
+				// rest, since the columns past them are the end columns.
+				for (int x = 1; x < width - 1; x++)
+					edges[here + x] = gradientSquared(x - 1, x, x + 1, smoothRed,
+							smoothGreen, smoothBlue, diffRed, diffGreen, diffBlue)
+							>= scaledLimit ? EDGE : NO_EDGE;
+				for (int x = 0; x < width; x += Math.max(width - 1, 1))
+					edges[here + x] = gradientSquared(Math.max(x - 1, 0), x,
+							Math.min(x + 1, width - 1), smoothRed, smoothGreen,
+							smoothBlue, diffRed, diffGreen, diffBlue)
+							>= scaledLimit ? EDGE : NO_EDGE;
+			}
+		}
+
+		/**
+		 * @return The unscaled squared gradient at column x, from the rows
+		 * 	combined column by column at columns left, x and right.
+		 */
+		private int gradientSquared(int left, int x, int right, int[] smoothRed,
+				int[] smoothGreen, int[] smoothBlue, int[] diffRed,
+				int[] diffGreen, int[] diffBlue) {
+			int redX = smoothRed[right] - smoothRed[left];
+			int greenX = smoothGreen[right] - smoothGreen[left];
+			int blueX = smoothBlue[right] - smoothBlue[left];
+			int redY = side * (diffRed[left] + diffRed[right]) + center * diffRed[x];
+			int greenY = side * (diffGreen[left] + diffGreen[right]) + center * diffGreen[x];
+			int blueY = side * (diffBlue[left] + diffBlue[right]) + center * diffBlue[x];
+			return redX * redX + greenX * greenX + blueX * blueX
+					+ redY * redY + greenY * greenY + blueY * blueY;
+		}
+
+		public String toString() { return name; }
+	}
+
+} // End of EdgeOperator interface
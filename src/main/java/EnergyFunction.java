@@ -0,0 +1,153 @@
+import java.util.Arrays;
+
+/**
+ * A way of weighing pixels for seam carving. An energy function fills in
+ * 	an energy plane from a luminosity plane, and may also charge a cost for
+ * 	each step a seam takes from one row to the next. Seams are found by the
+ * 	same dynamic program whichever function is used, working on buffers the
+ * 	caller provides, so the functions can be compared on the same pictures.
+ *
+ * Three functions are provided:
+ *
+ * 	(a) EnergyFunction.BACKWARD: the energy used by Picture.computeSeam(),
+ * 		the absolute difference in luminosity with the pixel to the right
+ * 		plus the absolute difference with the pixel below.
+ * 	(b) EnergyFunction.GRADIENT_MAGNITUDE: the length of the same gradient,
+ * 		sqrt(dx * dx + dy * dy), rounded down.
+ * 	(c) EnergyFunction.FORWARD: the forward energy of Rubinstein, Shamir and
+ * 		Avidan. A seam is charged for the new edges its removal creates
+ * 		between pixels that become neighbors, rather than for the pixels it
+ * 		removes.
+ */
+public interface EnergyFunction
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	public static final EnergyFunction BACKWARD = new Backward();
+	public static final EnergyFunction GRADIENT_MAGNITUDE = new GradientMagnitude();
+	public static final EnergyFunction FORWARD = new Forward();
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Fills in the energy of every pixel.
+	 *
+	 * @param luminosity The luminosity of each pixel, in row-major order.
+	 * @param energy The array to fill, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 */
+	public void computeEnergy(int[] luminosity, int[] energy, int width,
+			int height);
+
+	/**
+	 * @return True if seams are charged for their steps between rows, in
+	 * 	which case computeStepCosts must be called for every row.
+	 */
+	public boolean hasStepCosts();
+
+	/**
+	 * Fills in the cost of a seam reaching each pixel of a row from the
+	 * 	pixel above and to the left, straight above, and above and to the
+	 * 	right. For the top row only the straight cost is used.
+	 *
+	 * @param luminosity The luminosity of each pixel, in row-major order.
+	 * @param width The width of the plane.
+	 * @param y The row to fill in the costs of.
+	 * @param left The array to store the costs from above and to the left in.
+	 * @param up The array to store the costs from straight above in.
+	 * @param right The array to store the costs from above and to the right in.
+	 */
+	public void computeStepCosts(int[] luminosity, int width, int y,
+			int[] left, int[] up, int[] right);
+
+	///////////////////////////// Implementations /////////////////////////////
+
+	/**
+	 * The energy used by Picture.computeSeam().
+	 */
+	static class Backward implements EnergyFunction
+	{
+		public void computeEnergy(int[] luminosity, int[] energy, int width,
+				int height) {
+			EnergyMap.computeEnergy(luminosity, energy, width, height);
+		}
+
+		public boolean hasStepCosts() { return false; }
+
+		public void computeStepCosts(int[] luminosity, int width, int y,
+				int[] left, int[] up, int[] right) {
+		}
+
+		public String toString() { return "backward"; }
+	}
+
+	/**
+	 * The length of the gradient, with the same neighbors as Backward.
+	 */
+	static class GradientMagnitude implements EnergyFunction
+	{
+		public void computeEnergy(int[] luminosity, int[] energy, int width,
+				int height) {
+			for (int y = 0; y < height; y++) {
+				int offset = y * width;
+				int verticalOffset = y < height - 1 ? offset + width : offset - width;
+				for (int x = 0; x < width; x++) {
+					int here = luminosity[offset + x];
+					int side = x < width - 1 ? x + 1 : x - 1;
+					int dx = side < 0 ? 0 : luminosity[offset + side] - here;
+					int dy = verticalOffset < 0 ? 0
+							: luminosity[verticalOffset + x] - here;
+					energy[offset + x] = (int) Math.sqrt(dx * dx + dy * dy);
+				}
+			}
+		}
+
+		public boolean hasStepCosts() { return false; }
+
+		public void computeStepCosts(int[] luminosity, int width, int y,
+				int[] left, int[] up, int[] right) {
+		}
+
+		public String toString() { return "gradient magnitude"; }
+	}
+
+	/**
+	 * Forward energy. Removing the pixel at (x, y) makes its left and right
+	 * 	neighbors adjacent, costing |L(x + 1, y) - L(x - 1, y)|. A step from
+	 * 	above and to the left also makes (x, y - 1) adjacent to (x - 1, y),
+	 * 	and a step from above and to the right makes (x, y - 1) adjacent to
+	 * 	(x + 1, y). Pixels past the edges of the picture are taken to be the
+	 * 	edge pixel itself. The energy of each pixel is 0.
+	 */
+	static class Forward implements EnergyFunction
+	{
+		public void computeEnergy(int[] luminosity, int[] energy, int width,
+				int height) {
+			Arrays.fill(energy, 0, width * height, 0);
+		}
+
+		public boolean hasStepCosts() { return true; }
+
+		public void computeStepCosts(int[] luminosity, int width, int y,
+				int[] left, int[] up, int[] right) {
+			int offset = y * width;
+			int aboveOffset = offset - width;
+			for (int x = 0; x < width; x++) {
+				int west = luminosity[offset + Math.max(x - 1, 0)];
+				int east = luminosity[offset + Math.min(x + 1, width - 1)];
+				int straight = Math.abs(east - west);
+				up[x] = straight;
+				if (y > 0) {
+					int north = luminosity[aboveOffset + x];
+					left[x] = straight + Math.abs(north - west);
+					right[x] = straight + Math.abs(north - east);
+				}
+			}
+		}
+
+		public String toString() { return "forward"; }
+	}
+
+} // End of EnergyFunction interface
@@ -0,0 +1,169 @@
+/**
+ * The luminosity and energy of every pixel in a picture, computed once and
+ * 	stored as flat int arrays in row-major order (index = y * width + x).
+ * 	This is what the seam carving methods in Picture work from, so that
+ * 	each pixel is read and weighed only once.
+ *
+ * Luminosity is 0.21 * red + 0.72 * green + 0.07 * blue, rounded down.
+ * 	The energy of a pixel is the absolute difference between its luminosity
+ * 	and that of the pixel to its right, plus the absolute difference between
+ * 	its luminosity and that of the pixel below it. Pixels in the rightmost
+ * 	column use the pixel to their left instead, and pixels in the bottom row
+ * 	use the pixel above them.
+ */
+public class EnergyMap
+{
+
+	//////////////////////////////// Fields ///////////////////////////////////
+
+	/** Width of the picture the map was computed from. */
+	private int width;
+
+	/** Height of the picture the map was computed from. */
+	private int height;
+
+	/** Luminosity of each pixel, in row-major order. */
+	private int[] luminosity;
+
+	/** Energy of each pixel, in row-major order. */
+	private int[] energy;
+
+	//////////////////////////// Constructors /////////////////////////////////
+
+	/**
+	 * Computes the luminosity and energy of every pixel in the
+	 * 	SimplePicture provided.
+	 *
+	 * @param picture The SimplePicture to compute the map for.
+	 */
+	public EnergyMap(SimplePicture picture) {
+		this.width = picture.getWidth();
+		this.height = picture.getHeight();
+		this.luminosity = new int[width * height];
+		this.energy = new int[width * height];
+
+		computeLuminosity(picture.getRasterData(), luminosity, width * height);
+		computeEnergy(luminosity, energy, width, height);
+	}
+
+	/**
+	 * Computes the luminosity and energy of every pixel in a plane of
+	 * 	color values.
+	 *
+	 * @param pixels The color values, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 */
+	public EnergyMap(int[] pixels, int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.luminosity = new int[width * height];
+		this.energy = new int[width * height];
+
+		computeLuminosity(pixels, luminosity, luminosity.length);
+		computeEnergy(luminosity, energy, width, height);
+	}
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Computes the luminosity of a color value using fixed-point weights.
+	 * 	The result is the same as (int) (r * 0.21 + g * 0.72 + b * 0.07)
+	 * 	computed with doubles: the weighted sum is only re-evaluated in
+	 * 	floating point when it is an exact multiple of 100, which is the
+	 * 	one case where the double version can round down to the integer
+	 * 	below.
+	 *
+	 * @param value A color value.
+	 *
+	 * @return The luminosity of the color, from 0 to 255.
+	 */
+	public static int luminosity(int value) {
+		int r = (value >> 16) & 0xff;
+		int g = (value >> 8) & 0xff;
+		int b = value & 0xff;
+		int weighted = 21 * r + 72 * g + 7 * b;
+		int result = weighted / 100;
+		if (result * 100 == weighted)
+			return (int) (r * 0.21 + g * 0.72 + b * 0.07);
+		return result;
+	}
+
+	/**
+	 * Fills in the luminosity of a run of color values.
+	 *
+	 * @param pixels The color values.
+	 * @param luminosity The array to fill.
+	 * @param length The number of values to convert.
+	 */
+	static void computeLuminosity(int[] pixels, int[] luminosity, int length) {
+		PixelKernels.luminosity(pixels, luminosity, 0, length);
+	}
+
+	/**
+	 * Fills in the energy of every pixel from a luminosity plane, in one
+	 * 	pass over the rows.
+	 *
+	 * @param luminosity The luminosity of each pixel, in row-major order.
+	 * @param energy The array to fill, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 */
+	static void computeEnergy(int[] luminosity, int[] energy, int width,
+			int height) {
+		for (int y = 0; y < height; y++) {
+			int offset = y * width;
+			// Compare with the row below, or the row above for the last row.
+			int verticalOffset = y < height - 1 ? offset + width : offset - width;
+			PixelKernels.energyRow(luminosity, energy, offset, verticalOffset,
+					width);
+		}
+	}
+
+	/**
+	 * @return The width of the picture the map was computed from.
+	 */
+	public int getWidth() { return width; }
+
+	/**
+	 * @return The height of the picture the map was computed from.
+	 */
+	public int getHeight() { return height; }
+
+	/**
+	 * @param x The x-coordinate of the pixel.
+	 * @param y The y-coordinate of the pixel.
+	 *
+	 * @return The luminosity of the pixel at (x, y).
+	 */
+	public int getLuminosity(int x, int y) {
+		return luminosity[y * width + x];
+	}
+
+	/**
+	 * @param x The x-coordinate of the pixel.
+	 * @param y The y-coordinate of the pixel.
+	 *
+	 * @return The energy of the pixel at (x, y).
+	 */
+	public int getEnergy(int x, int y) {
+		return energy[y * width + x];
+	}
+
+	/**
+	 * @return The luminosity plane, in row-major order. This is the
+	 * 	array held by the map, not a copy.
+	 */
+	public int[] getLuminosityData() {
+		return luminosity;
+	}
+
+	/**
+	 * @return The energy plane, in row-major order. This is the
+	 * 	array held by the map, not a copy.
+	 */
+	public int[] getEnergyData() {
+		return energy;
+	}
+
+} // End of EnergyMap class
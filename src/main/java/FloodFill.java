@@ -0,0 +1,149 @@
+import java.util.Arrays;
+
+/**
+ * Fills the region of similar colors around a pixel of a packed raster, as
+ * 	Picture.paintBucket does. The region is every pixel that can be reached
+ * 	from the starting pixel by steps left, right, up and down through
+ * 	pixels whose color distance from the starting pixel's color is less than
+ * 	the threshold.
+ *
+ * The fill works a row at a time: each run of matching pixels is painted
+ * 	in one go, and the start of every matching run just above and below it
+ * 	is pushed on an explicit stack, so the fill needs no recursion however
+ * 	large the region. Color distances are compared squared, against the
+ * 	threshold squared, so no square roots are taken.
+ *
+ * The stack and the mask of painted pixels are kept between fills, so one
+ * 	FloodFill can fill many pictures without allocating again; they only
+ * 	grow when a larger picture or region comes along. A FloodFill must not
+ * 	be used by two threads at once, so Picture.paintBucket fills with the
+ * 	one from forCurrentThread().
+ */
+public class FloodFill
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	/** The FloodFill of each thread, made the first time the thread asks. */
+	private static final ThreadLocal<FloodFill> PER_THREAD = new ThreadLocal<FloodFill>() {
+		protected FloodFill initialValue() {
+			return new FloodFill();
+		}
+	};
+
+	//////////////////////////////// Fields ///////////////////////////////////
+
+	/** Start of each run still to fill, as y * width + x. */
+	private int[] stack = new int[64];
+
+	/** 1 for each pixel painted by the current fill, in row-major order. */
+	private byte[] painted = new byte[0];
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * @return The FloodFill kept for the calling thread, whose stack and mask
+	 * 	are reused by every fill on that thread.
+	 */
+	public static FloodFill forCurrentThread() {
+		return PER_THREAD.get();
+	}
+
+	/**
+	 * Paints the region around (x, y) in place.
+	 *
+	 * @param pixels The color values, in row-major order.
+	 * @param width The width of the picture.
+	 * @param height The height of the picture.
+	 * @param x The x-coordinate of the starting pixel.
+	 * @param y The y-coordinate of the starting pixel.
+	 * @param threshold Pixels whose color distance from the starting pixel is
+	 * 	less than this are in the region.
+	 * @param newValue The color to paint; each pixel keeps its own alpha.
+	 *
+	 * @return The number of pixels painted.
+	 */
+	public int fill(int[] pixels, int width, int height, int x, int y,
+			int threshold, int newValue) {
+		if (x < 0 || x >= width || y < 0 || y >= height)
+			throw new IllegalArgumentException("(" + x + ", " + y
+					+ ") is not in a picture of width " + width
+					+ " and height " + height);
+		// A distance is never negative, so nothing is less than 0.
+		if (threshold <= 0)
+			return 0;
+
+		int length = width * height;
+		if (painted.length < length)
+			painted = new byte[length];
+		else
+			Arrays.fill(painted, 0, length, (byte) 0);
+
+		int selected = pixels[y * width + x];
+		long limit = Pixel.distanceLimitBelow(threshold);
+		int color = newValue & 0xffffff;
+
+		int count = 0;
+		int size = 0;
+		stack[size++] = y * width + x;
+		while (size > 0) {
+			int start = stack[--size];
+			if (!matches(pixels, start, selected, limit))
+				continue;
+			int rowStart = start - start % width;
+			int rowEnd = rowStart + width;
+
+			int left = start;
+			while (left > rowStart && matches(pixels, left - 1, selected, limit))
+				left--;
+			int right = start + 1;
+			while (right < rowEnd && matches(pixels, right, selected, limit))
+				right++;
+
+			for (int i = left; i < right; i++) {
+				pixels[i] = (pixels[i] & 0xff000000) | color;
+				painted[i] = 1;
+			}
+			count += right - left;
+
+			// Push the start of each matching run in the rows above and below.
+			if (rowStart > 0)
+				size = pushRuns(pixels, left - width, right - width, size,
+						selected, limit);
+			if (rowEnd < length)
+				size = pushRuns(pixels, left + width, right + width, size,
+						selected, limit);
+		}
+		return count;
+	}
+
+	/**
+	 * Pushes the first pixel of every matching run in [from, to).
+	 *
+	 * @return The new size of the stack.
+	 */
+	private int pushRuns(int[] pixels, int from, int to, int size,
+			int selected, long limit) {
+		boolean inRun = false;
+		for (int i = from; i < to; i++) {
+			boolean match = matches(pixels, i, selected, limit);
+			if (match && !inRun) {
+				if (size == stack.length)
+					stack = Arrays.copyOf(stack, size * 2);
+				stack[size++] = i;
+			}
+			inRun = match;
+		}
+		return size;
+	}
+
+	/**
+	 * @return True if the pixel at index i has not been painted and its color
+	 * 	distance from selected, squared, is less than limit.
+	 */
+	private boolean matches(int[] pixels, int i, int selected, long limit) {
+		return painted[i] == 0
+				&& Pixel.colorDistanceSquared(pixels[i], selected) < limit;
+	}
+
+} // End of FloodFill class
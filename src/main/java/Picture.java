@@ -54,6 +54,19 @@ public class Picture extends SimplePicture
 		super(width, height);
 	}
 
+	/**
+	 * Creates a Picture of the width and height provided that uses the
+	 * array of color values provided as its pixels, without copying it.
+	 *
+	 * @param width The width of the desired picture.
+	 * @param height The height of the desired picture.
+	 * @param pixels The color values, in row-major order; exactly width * height of them.
+	 */
+	public Picture(int width, int height, int[] pixels) {
+		// Let the parent class wrap the pixels.
+		super(width, height, pixels);
+	}
+
 	/**
 	 * Creates a copy of the Picture provided.
 	 *
@@ -119,12 +132,12 @@ public class Picture extends SimplePicture
 			return false;
 		}
 
-		// Check each pixel.
-		for (int x = 0; x < this.getWidth(); x++) {
-			for(int y = 0; y < this.getHeight(); y++) {
-				if (!this.getPixel(x, y).equals(p.getPixel(x, y))) {
-					return false;
-				}
+		// Check each row of pixels.
+		int[] row = new int[this.getWidth()];
+		int[] otherRow = new int[this.getWidth()];
+		for (int y = 0; y < this.getHeight(); y++) {
+			if (!java.util.Arrays.equals(this.getRow(y, row), p.getRow(y, otherRow))) {
+				return false;
 			}
 		}
 
@@ -147,11 +160,12 @@ public class Picture extends SimplePicture
 	public void printLuminosity(){
 		int pictureHeight = this.getHeight();
 		int pictureWidth = this.getWidth();
+		EnergyMap map = new EnergyMap(this);
 		System.out.println("Luminosity:");
 		for(int y = 0; y < pictureHeight; y++) {
 			System.out.print("[");
 			for(int x = 0; x < pictureWidth; x++) {
-				System.out.print(this.luminosityOfPixel(x, y) + "\t");
+				System.out.print(map.getLuminosity(x, y) + "\t");
 			}
 			System.out.println("]");
 		}
@@ -162,11 +176,12 @@ public class Picture extends SimplePicture
 	public void printEnergy(){
 		int pictureHeight = this.getHeight();
 		int pictureWidth = this.getWidth();
+		EnergyMap map = new EnergyMap(this);
 		System.out.println("Energy:");
 		for(int y = 0; y < pictureHeight; y++) {
 			System.out.print("[");
 			for(int x = 0; x < pictureWidth; x++) {
-				System.out.print(this.getEnergy(x, y) + "\t");
+				System.out.print(map.getEnergy(x, y) + "\t");
 			}
 			System.out.println("]");
 		}
@@ -200,12 +215,11 @@ public class Picture extends SimplePicture
 
 		int pictureHeight = this.getHeight();
 		int pictureWidth = this.getWidth();
-		Color red = new Color(255, 0, 0);
-		for(int x = 0; x < pictureWidth; x++) {
-			for(int y = 0; y < pictureHeight; y++) {
-				if (!this.getPixel(x, y).equals(picture2.getPixel(x, y))) {
-					Pixel p = newPicture.getPixel(x, y);
-					p.setColor(red);
+		for(int y = 0; y < pictureHeight; y++) {
+			for(int x = 0; x < pictureWidth; x++) {
+				int value = this.getBasicPixel(x, y);
+				if (value != picture2.getBasicPixel(x, y)) {
+					newPicture.setBasicPixel(x, y, (value & 0xff000000) | 0xff0000);
 				}
 			}
 		}
@@ -224,33 +238,40 @@ public class Picture extends SimplePicture
 	 * Returns a new Picture, which is the gray version of the current Picture (this)
 	 *
 	 * This is an example where all of the pixel-processing occurs within
-	 * the nested for loops (over the columns, x, and rows, y).
+	 * the nested for loops (over the rows, y, and columns, x). A single
+	 * Pixel is moved from location to location rather than creating a
+	 * new Pixel for each one.
 	 *
 	 * @return A new Picture that is the grayscale version of this Picture.
 	 */
 	public Picture grayscale2() {
-		Picture newPicture = new Picture(this);
+		final Picture newPicture = new Picture(this);
 
-		int pictureHeight = this.getHeight();
-		int pictureWidth = this.getWidth();
+		final int pictureWidth = this.getWidth();
+
+		//each band of rows moves its own Pixel
+		RowBands.forEach(pictureWidth, this.getHeight(), new RowBands.Band() {
+			public void run(int top, int bottom) {
+				Pixel currentPixel = new Pixel(newPicture, 0, top);
 
-		for (int x = 0; x < pictureWidth; x++) {
-			for (int y = 0; y < pictureHeight; y++) {
+				for (int y = top; y < bottom; y++) {
+					for (int x = 0; x < pictureWidth; x++) {
 
-				Pixel currentPixel = newPicture.getPixel(x, y);
+						currentPixel.moveTo(x, y);
 
-				Color c = currentPixel.getColor();
-				int redComponent = c.getRed();
-				int greenComponent = c.getGreen();
-				int blueComponent = c.getBlue();
+						int value = currentPixel.getColorValue();
+						int redComponent = Pixel.getRed(value);
+						int greenComponent = Pixel.getGreen(value);
+						int blueComponent = Pixel.getBlue(value);
 
-				int average = (redComponent + greenComponent + blueComponent) / 3;
+						int average = (redComponent + greenComponent + blueComponent) / 3;
 
-				currentPixel.setRed(average);
-				currentPixel.setGreen(average);
-				currentPixel.setBlue(average);
+						currentPixel.setColorValue(Pixel.colorValue(Pixel.getAlpha(value),
+								average, average, average));
+					}
+				}
 			}
-		}
+		});
 		return newPicture;
 	}
 
@@ -263,54 +284,31 @@ public class Picture extends SimplePicture
 	 * 	new picture to the same value: the average of the red, green, and blue
 	 * 	components of the same pixel in the original.
 	 *
-	 * This example shows a more modular approach: grayscale uses a helper
-	 * named setPixelToGray; setPixelToGray, in turn, uses the helper averageOfRGB.
+	 * The averaging is done over bands of rows of the raster at once by
+	 * PixelKernels.grayscale.
 	 *
 	 * @return A new Picture that is the grayscale version of this Picture.
 	 */
 	public Picture grayscale() {
 		Picture newPicture = new Picture(this);
-
-		int pictureHeight = this.getHeight();
-		int pictureWidth = this.getWidth();
-
-		for(int x = 0; x < pictureWidth; x++) {
-			for(int y = 0; y < pictureHeight; y++) {
-				newPicture.setPixelToGray(x, y);
+		final int[] pixels = newPicture.getRasterData();
+		final int width = newPicture.getWidth();
+		RowBands.forEach(width, newPicture.getHeight(), new RowBands.Band() {
+			public void run(int top, int bottom) {
+				PixelKernels.grayscale(pixels, top * width, bottom * width);
 			}
-		}
+		});
 		return newPicture;
 	}
 
 	/**
-	 * Helper method for grayscale() to set a pixel at (x, y) to be gray.
-	 *
-	 * @param x The x-coordinate of the pixel to be set to gray.
-	 * @param y The y-coordinate of the pixel to be set to gray.
-	 */
-	private void setPixelToGray(int x, int y) {
-		Pixel currentPixel = this.getPixel(x, y);
-		int average = Picture.averageOfRGB(currentPixel.getColor());
-		currentPixel.setRed(average);
-		currentPixel.setGreen(average);
-		currentPixel.setBlue(average);
-	}
-	/**
-	 * Helper method for grayscale() to calculate the
-	 * average value of red, green and blue.
+	 * Starts a chain of filters on this Picture that copies it only once
+	 * 	and runs consecutive point filters in one pass. See PicturePipeline.
 	 *
-	 * @param c is the Color to be averaged
-	 * @return The average of the red, green and blue values of this Color
+	 * @return A new PicturePipeline on this Picture.
 	 */
-	private static int averageOfRGB(Color c) {
-		int redComponent = c.getRed();
-		int greenComponent = c.getGreen();
-		int blueComponent = c.getBlue();
-
-		// this uses integer division, which is what we want here
-		// pixels always need to have integer values from 0 to 255 (inclusive)
-		// for their red, green, and blue components:
-		return (redComponent + greenComponent + blueComponent) / 3;
+	public PicturePipeline pipeline() {
+		return new PicturePipeline(this);
 	}
 
 	//////////////////////////// Change Colors Menu /////////////////////////////////
@@ -328,17 +326,13 @@ public class Picture extends SimplePicture
 	public Picture negate() {
 		// TODO: Write negate
 		Picture newPicture = new Picture(this);
-
-		for(int x = 0; x < newPicture.getWidth(); x++) {
-			for(int y = 0; y < newPicture.getHeight(); y++) {
-				Pixel currentPixel = newPicture.getPixel(x, y);
-
-				//sets RGB values to 255 - gotten RGB values of original pixel
-				currentPixel.setRed(255 - currentPixel.getRed());
-				currentPixel.setGreen(255 - currentPixel.getGreen());
-				currentPixel.setBlue(255 - currentPixel.getBlue());
+		final int[] pixels = newPicture.getRasterData();
+		final int width = newPicture.getWidth();
+		RowBands.forEach(width, newPicture.getHeight(), new RowBands.Band() {
+			public void run(int top, int bottom) {
+				PixelKernels.negate(pixels, top * width, bottom * width);
 			}
-		}
+		});
 		return newPicture;
 	}
 	//////////////////////////// Lighten /////////////////////////////////
@@ -353,7 +347,7 @@ public class Picture extends SimplePicture
 	 */
 	public Picture lighten(int lightenAmount) {
 		// TODO: Write lighten
-		return addRGB(lightenAmount, "all");
+		return applyLookup(ChannelLookup.add(lightenAmount, lightenAmount, lightenAmount));
 	}
 
 	//////////////////////////// Darken /////////////////////////////////
@@ -369,35 +363,17 @@ public class Picture extends SimplePicture
 	public Picture darken(int darkenAmount) {
 		// TODO: Write darken
 		int darkDecrease = darkenAmount * -1;
-		return addRGB(darkDecrease, "all");
+		return applyLookup(ChannelLookup.add(darkDecrease, darkDecrease, darkDecrease));
 	}
 
 	/**
-	 * Helper method for lighten(), darken(), and add colors to set a pixel at (x, y) to increase/decrease RGB levels.
+	 * Helper method for lighten(), darken(), and add colors which
+	 * returns a copy of this Picture with every pixel changed by a lookup
+	 * table per channel, in one pass over the raster.
 	 */
-	private Picture addRGB(int amount, String color) {
+	private Picture applyLookup(ChannelLookup lookup) {
 		Picture newPicture = new Picture(this);
-
-		for(int x = 0; x < newPicture.getWidth(); x++) {
-			for(int y = 0; y < newPicture.getHeight(); y++) {
-				Pixel currentPixel = newPicture.getPixel(x, y);
-				if (color.equals("all")){
-					currentPixel.setRed(currentPixel.getRed() + amount);
-					currentPixel.setGreen(currentPixel.getGreen() + amount);
-					currentPixel.setBlue(currentPixel.getBlue() + amount);
-				}
-				else if (color.equals("r")){
-					currentPixel.setRed(currentPixel.getRed() + amount);
-				}
-				else if (color.equals("g")){
-					currentPixel.setGreen(currentPixel.getGreen() + amount);
-				}
-				else if (color.equals("b")){
-					currentPixel.setBlue(currentPixel.getBlue() + amount);
-				}
-			}
-		}
-
+		lookup.apply(newPicture);
 		return newPicture;
 	}
 	//////////////////////////// Add[Blue,Green,Red] /////////////////////////////////
@@ -412,7 +388,7 @@ public class Picture extends SimplePicture
 	 */
 	public Picture addBlue(int amount) {
 		// TODO: Write addBlue
-		return addRGB(amount, "b");
+		return applyLookup(ChannelLookup.add(0, 0, amount));
 	}
 
 	/**
@@ -425,7 +401,7 @@ public class Picture extends SimplePicture
 	 */
 	public Picture addRed(int amount) {
 		// TODO: Write addRed
-		return addRGB(amount, "r");
+		return applyLookup(ChannelLookup.add(amount, 0, 0));
 	}
 
 	/**
@@ -438,7 +414,7 @@ public class Picture extends SimplePicture
 	 */
 	public Picture addGreen(int amount) {
 		// TODO: Write addGreen
-		return addRGB(amount, "g");
+		return applyLookup(ChannelLookup.add(0, amount, 0));
 	}
 
 	//////////////////////////// Rotate Right /////////////////////////////////
@@ -452,21 +428,41 @@ public class Picture extends SimplePicture
 	 */
 	public Picture rotateRight() {
 		// TODO: Write rotateRight
-		int newPictureHeight = this.getWidth();
-		int newPictureWidth = this.getHeight();
+		int width = this.getWidth();
+		int height = this.getHeight();
+		//the raster is turned a tile at a time, straight into the new Picture's pixels
+		int[] pixels = Rotation.rotateRight(this.getRasterData(), width, height, new int[width * height]);
 		//constructor takes in order: width and height
-		Picture newPicture = new Picture(newPictureWidth,newPictureHeight);
-
-		for(int x = 0; x < newPictureWidth; x++) {
-			for(int y = 0; y < newPictureHeight; y++) {
-				Pixel currentPixel = newPicture.getPixel(x, y);
-				Pixel correspondingPixel = this.getPixel(y, newPicture.getWidth() - 1 - x);
-				Color thisColor = correspondingPixel.getColor();
-				currentPixel.setColor(thisColor);
-			}
-		}
+		return new Picture(height, width, pixels);
+	}
 
-		return newPicture;
+	/**
+	 * Returns a new picture where the Picture is rotated to the left by 90
+	 * degrees, the same as rotating it to the right three times. If the
+	 * picture was originally 50 Pixels by 70 Pixels, the new Picture should
+	 * be 70 Pixels by 50 Pixels.
+	 *
+	 * @return a new Picture rotated left by 90 degrees
+	 */
+	public Picture rotateLeft() {
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int[] pixels = Rotation.rotateLeft(this.getRasterData(), width, height, new int[width * height]);
+		return new Picture(height, width, pixels);
+	}
+
+	/**
+	 * Returns a new picture where the Picture is rotated by 180 degrees, the
+	 * same as rotating it to the right twice. The new Picture is the same
+	 * size as the original.
+	 *
+	 * @return a new Picture rotated by 180 degrees
+	 */
+	public Picture rotate180() {
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int[] pixels = Rotation.rotate180(this.getRasterData(), width, height, new int[width * height]);
+		return new Picture(width, height, pixels);
 	}
 
 	//////////////////////////// Seam Carving Section /////////////////////////////////
@@ -486,17 +482,24 @@ public class Picture extends SimplePicture
 		// TODO: Write luminosity
 		Picture newPicture = new Picture(this);
 
-		int pictureHeight = newPicture.getHeight();
-		int pictureWidth = newPicture.getWidth();
-
-		for(int x = 0; x < pictureWidth; x++) {
-			for (int y = 0; y < pictureHeight; y++) {
-				Pixel currentPixel = newPicture.getPixel(x, y);
-				currentPixel.setRed(luminosityOfPixel(x,y));
-				currentPixel.setGreen(luminosityOfPixel(x,y));
-				currentPixel.setBlue(luminosityOfPixel(x,y));
+		final int[] pixels = newPicture.getRasterData();
+		final int[] luminosity = new int[pixels.length];
+		final int width = newPicture.getWidth();
+		final int alphaFill = newPicture.hasAlpha() ? 0 : 0xff000000;
+
+		//the luminosity of a band is found with PixelKernels.luminosity,
+		//then written to all three channels keeping the alpha
+		RowBands.forEach(width, newPicture.getHeight(), new RowBands.Band() {
+			public void run(int top, int bottom) {
+				int from = top * width;
+				int to = bottom * width;
+				PixelKernels.luminosity(pixels, luminosity, from, to);
+				for (int i = from; i < to; i++) {
+					pixels[i] = ((pixels[i] | alphaFill) & 0xff000000)
+							| (luminosity[i] * 0x010101);
+				}
 			}
-		}
+		});
 
 		return newPicture;
 	}
@@ -512,11 +515,7 @@ public class Picture extends SimplePicture
 	 */
 	private int luminosityOfPixel(int x, int y) {
 		// TODO: Write luminosityOfPixel
-		int r = this.getPixel(x,y).getRed();
-		int g = this.getPixel(x,y).getGreen();
-		int b = this.getPixel(x,y).getBlue();
-		double luminosity = r*0.21 + g*0.72 + b*0.07;
-		return (int) luminosity;
+		return EnergyMap.luminosity(this.getBasicPixel(x, y));
 	}
 
 	//////////////////////////// Energy /////////////////////////////////
@@ -529,14 +528,13 @@ public class Picture extends SimplePicture
 	public Picture energy(){
 		// TODO: Write energy
 		Picture newPicture = new Picture(this);
-		int pictureHeight = newPicture.getHeight();
-		int pictureWidth = newPicture.getWidth();
+		int[] energy = new EnergyMap(this).getEnergyData();
+		int[] pixels = newPicture.getRasterData();
 
-		for(int x = 0; x < pictureWidth; x++) {
-			for (int y = 0; y < pictureHeight; y++) {
-				Pixel currentPixel = newPicture.getPixel(x, y);
-				setEnergy(x,y,currentPixel);
-			}
+		//the energy plane has the same row-major layout as the raster
+		for(int i = 0; i < pixels.length; i++) {
+			int value = Pixel.correctValue(energy[i]);
+			pixels[i] = (pixels[i] & 0xff000000) | (value << 16) | (value << 8) | value;
 		}
 
 		return newPicture;
@@ -571,11 +569,6 @@ public class Picture extends SimplePicture
 		}
 		return energy;
 	}
-	private void setEnergy(int x, int y, Pixel pixel) {
-		pixel.setRed(getEnergy(x, y));
-		pixel.setGreen(getEnergy(x, y));
-		pixel.setBlue(getEnergy(x, y));
-	}
 
 
 	//////////////////////////// Compute Seam /////////////////////////////////
@@ -590,87 +583,43 @@ public class Picture extends SimplePicture
 	@SuppressWarnings("unused")
 	public int[] computeSeam() {
 		// TODO: Write computeSeam
-		int[][] table = new int[this.getWidth()][this.getHeight()];
-		for (int y = 0; y < this.getHeight(); y++) {
-			for (int x = 0; x < this.getWidth(); x++) {
-				table[x][y] = getEnergy(x, y);
-			}
-		}
-
-		int[][] parent = new int[this.getWidth()][this.getHeight()];
-
-		for (int y = 1; y < this.getHeight(); y++){
-			for (int x = 0; x < this.getWidth(); x++){
-				//if at the left boundary
-				if (x == 0){
-					int top = table[x][y-1];
-					int topRight = table[x+1][y-1];
-					int min = Math.min(top, topRight);
-					table[x][y] += min;
-					//if top and topRight are the same, prioritize top, then topRight
-					if (min == top){
-						parent[x][y] = x;
-					}
-					else{
-						parent[x][y] = x+1;
-					}
-				}
-				//if at right boundary
-				else if (x == this.getWidth() - 1){
-					int topLeft = table[x-1][y-1];
-					int top = table[x][y-1];
-					int min = Math.min(top,topLeft);
-					table[x][y] += min;
-					//if top and topLeft are the same, prioritize top, then topLeft
-					if (min == top){
-						parent[x][y] = x;
-					}
-					else{
-						parent[x][y] = x-1;
-					}
-				}
-				//else if it's inbetween
-				else{
-					int topLeft = table[x-1][y-1];
-					int top = table[x][y-1];
-					int topRight = table[x+1][y-1];
-					int min1 = Math.min(top, topRight);
-					int min2 = Math.min(min1, topLeft);
-					table[x][y] += min2;
-					//if top, topLeft and topRight are the same, prioritize top, then topLeft, lastly topRight
-					if (min2 == top){
-						parent[x][y] = x;
-					}
-					else if (min2 == topLeft){
-						parent[x][y] = x-1;
-					}
-					else{
-						parent[x][y] = x+1;
-					}
-				}
-			}
-		}
+		//the DP walks the energy plane row by row, keeping two rows of costs
+		//and a byte per pixel for the parent (-1, 0 or +1 from its column).
+		//If costs above are equal, prioritize top, then topLeft, lastly topRight
+		EnergyMap map = new EnergyMap(this);
+		return SeamCarver.findSeam(map.getEnergyData(), this.getWidth(), this.getHeight());
+	}
 
-		//finding the smallest table value on bottom row
-		int min = table[0][this.getHeight() - 1];
-		//currentColumn is the x value at the last row in table, with the minimum value
-		int currentColumn = 0;
-		for (int x = 0; x < this.getWidth(); x++){
-			if (table[x][this.getHeight() - 1] < min){
-				min = table[x][this.getHeight() - 1];
-				currentColumn = x;
-			}
-		}
+	/**
+	 * Returns an int array with the x-coordinates (columns) of a low-energy
+	 * seam found from coarse to fine: the seam is found on the energy halved
+	 * levels times, then refined at each finer level within bandWidth columns
+	 * of the coarser seam. This is much less work than computeSeam() on very
+	 * large pictures, but the seam may cost more than the lowest-energy seam.
+	 *
+	 * @param levels Number of times to halve the energy; 0 gives computeSeam().
+	 * @param bandWidth Number of columns to search on each side of the coarser seam.
+	 */
+	public int[] computeSeamCoarseToFine(int levels, int bandWidth) {
+		EnergyMap map = new EnergyMap(this);
+		return SeamCarver.findSeamCoarseToFine(map.getEnergyData(), this.getWidth(), this.getHeight(), levels, bandWidth);
+	}
 
-		//working way up and collecting pixels
-		int[] arraySeam = new int[this.getHeight()];
-		arraySeam[this.getHeight() - 1] = currentColumn;
-		int parentVal = currentColumn;
-		for (int i = this.getHeight() - 1; i > 0; i--){
-			arraySeam[i-1] = parent[parentVal][i];
-			parentVal = parent[parentVal][i];
-		}
-		return arraySeam;
+	/**
+	 * Returns an int array with the x-coordinates (columns) of the lowest-cost
+	 * seam running from the top row to the bottom row, with the pixels weighed
+	 * by the energy function provided: EnergyFunction.BACKWARD (the same seam
+	 * as computeSeam()), EnergyFunction.FORWARD or
+	 * EnergyFunction.GRADIENT_MAGNITUDE.
+	 *
+	 * @param function The energy function to weigh the pixels with.
+	 */
+	public int[] computeSeam(EnergyFunction function) {
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int[] luminosity = new int[width * height];
+		EnergyMap.computeLuminosity(this.getRegion(0, 0, width, height, new int[width * height]), luminosity, width * height);
+		return SeamCarver.findSeam(luminosity, new int[width * height], width, height, function);
 	}
 
 	//////////////////////////// Show Seam /////////////////////////////////
@@ -687,9 +636,9 @@ public class Picture extends SimplePicture
 		Picture newPicture = new Picture(this);
 		for(int y = 0; y < seam.length; y++){
 			int x = seam[y];
-			//currentPixel has the x-value (column) taken from computeSeam
-			Pixel currentPixel = newPicture.getPixel(x, y);
-			currentPixel.setColor(Color.red);
+			//the pixel at the x-value (column) taken from computeSeam turns red
+			int value = newPicture.getBasicPixel(x, y);
+			newPicture.setBasicPixel(x, y, (value & 0xff000000) | 0xff0000);
 		}
 		return newPicture;
 	}
@@ -705,27 +654,20 @@ public class Picture extends SimplePicture
 		// TODO: Write carve
 		int[] seam = this.computeSeam();
 		//after carved 1 seam, width should be less by 1, but height stays the same
-		int newWidth = this.getWidth() - 1;
-		Picture newPicture = new Picture(newWidth, this.getHeight());
+		int width = this.getWidth();
+		int newWidth = width - 1;
+		int[] source = this.getRasterData();
+		int[] pixels = new int[newWidth * this.getHeight()];
 
+		//each row is copied in two runs: everything before the seam, then
+		//everything after the seam shifted to the left, aka x - 1
 		for (int y = 0; y < this.getHeight(); y++){
-			int seamColumn = seam[y];
-			//everything before the seam
-			for (int x = 0; x < seamColumn; x++){
-				Pixel currentPixel = newPicture.getPixel(x, y);
-				Pixel originalPixel = this.getPixel(x, y);
-				Color thisColor = originalPixel.getColor();
-				currentPixel.setColor(thisColor);
-			}
-			//everything after the seam shift to the left, aka x - 1
-			for (int x = seamColumn + 1; x < this.getWidth(); x++){
-				Pixel currentPixel = newPicture.getPixel(x - 1, y);
-				Pixel originalPixel = this.getPixel(x, y);
-				Color thisColor = originalPixel.getColor();
-				currentPixel.setColor(thisColor);
-			}
+			int from = y * width;
+			int to = y * newWidth;
+			System.arraycopy(source, from, pixels, to, seam[y]);
+			System.arraycopy(source, from + seam[y] + 1, pixels, to + seam[y], newWidth - seam[y]);
 		}
-		return newPicture;
+		return new Picture(newWidth, this.getHeight(), pixels);
 	}
 
 	/**
@@ -746,11 +688,207 @@ public class Picture extends SimplePicture
 			return null;
 		}
 
-		Picture newPicture = new Picture(this);
+		if (numSeams == 0){
+			return new Picture(this);
+		}
+
+		//the carver keeps its energy and seam costs from one seam to the next
+		SeamCarver carver = new SeamCarver(this);
 		for (int i = 0; i < numSeams; i++){
-			newPicture = newPicture.carve();
+			carver.removeSeam(carver.findSeam());
 		}
-		return newPicture;
+		return carver.toPicture();
+	}
+
+	/**
+	 * Returns a new picture with numSeams seams removed, taking up to batchSize
+	 * non-overlapping low-energy seams from each seam search. This is much
+	 * faster than carveMany(numSeams) for large numbers of seams, but the
+	 * seams are not exactly the ones carveMany would remove; a batchSize of 1
+	 * gives the same picture as carveMany.
+	 *
+	 * @param numSeams Number of seams to remove.
+	 * @param batchSize Largest number of seams to remove per seam search.
+	 */
+	public Picture carveManyInBatches(int numSeams, int batchSize){
+		if (numSeams > this.getWidth() || batchSize < 1){
+			System.err.println("Cannot call carveManyInBatches with arguments " + numSeams + ", " + batchSize + " on image of width " + this.getWidth());
+			return null;
+		}
+
+		if (numSeams == 0){
+			return new Picture(this);
+		}
+
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int[] pixels = this.getRegion(0, 0, width, height, new int[width * height]);
+		SeamCarver.carveInBatches(pixels, width, height, numSeams, batchSize);
+		return new Picture(width - numSeams, height, java.util.Arrays.copyOf(pixels, (width - numSeams) * height));
+	}
+
+	/**
+	 * Returns a new picture with numSeams seams removed, with the pixels
+	 * weighed by the energy function provided. EnergyFunction.BACKWARD gives
+	 * the same picture as carveMany(numSeams).
+	 *
+	 * @param numSeams Number of seams to remove.
+	 * @param function The energy function to weigh the pixels with.
+	 */
+	public Picture carveMany(int numSeams, EnergyFunction function){
+		if (numSeams > this.getWidth()){
+			System.err.println("Cannot call carveMany with argument " + numSeams + " on image of width " + this.getWidth());
+			return null;
+		}
+
+		if (numSeams == 0 || function == EnergyFunction.BACKWARD){
+			return carveMany(numSeams);
+		}
+
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int[] pixels = this.getRegion(0, 0, width, height, new int[width * height]);
+		SeamCarver.carve(pixels, width, height, numSeams, function);
+		return new Picture(width - numSeams, height, java.util.Arrays.copyOf(pixels, (width - numSeams) * height));
+	}
+
+	/**
+	 * Returns a Picture widened by numSeams columns. The numSeams lowest-energy
+	 * seams, the ones carveMany(numSeams) would remove, are found on a working
+	 * copy and then doubled in the returned Picture. Each pixel on a seam
+	 * becomes two pixels, each the average of it and one of its neighbors.
+	 *
+	 * @param numSeams Number of seams to add, less than the width of this Picture.
+	 */
+	public Picture enlarge(int numSeams){
+		if (numSeams >= this.getWidth()){
+			System.err.println("Cannot call enlarge with argument " + numSeams + " on image of width " + this.getWidth());
+			return null;
+		}
+
+		if (numSeams == 0){
+			return new Picture(this);
+		}
+
+		return new SeamIndexMap(this, numSeams).toEnlargedPicture();
+	}
+
+	//////////////////////////// Horizontal Seams /////////////////////////////////
+
+	/**
+	 * Returns an int array with the y-coordinates (rows) of the lowest-energy
+	 * horizontal seam running from the leftmost column to the rightmost column.
+	 *
+	 * This is the same search as computeSeam(), run over the energy of this
+	 * Picture read transposed, so no rotated copy of the Picture is made. If
+	 * costs are equal, the seam prefers the same row, then the row above,
+	 * lastly the row below.
+	 */
+	public int[] computeHorizontalSeam() {
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int[] energy = new EnergyMap(this).getEnergyData();
+		int[] transposed = Rotation.transpose(energy, width, height, new int[width * height]);
+		return SeamCarver.findSeam(transposed, height, width);
+	}
+
+	/**
+	 * Returns a new picture, where the seam identified by calling
+	 * computeHorizontalSeam() is removed. The resulting image should be the
+	 * same width as the original but have a height that is one smaller than
+	 * the original.
+	 */
+	public Picture carveHorizontal(){
+		int[] seam = this.computeHorizontalSeam();
+		int width = this.getWidth();
+		int newHeight = this.getHeight() - 1;
+		int[] source = this.getRasterData();
+		int[] pixels = new int[width * newHeight];
+
+		for (int y = 0; y < newHeight; y++){
+			int offset = y * width;
+			for (int x = 0; x < width; x++){
+				//everything at or below the seam in this column moves up, aka y + 1
+				pixels[offset + x] = source[y < seam[x] ? offset + x : offset + width + x];
+			}
+		}
+		return new Picture(width, newHeight, pixels);
+	}
+
+	/**
+	 * This returns a new Picture that has a number of horizontal seams removed.
+	 * The pixels are transposed once, carved with the same engine as
+	 * carveMany(), and transposed back, instead of rotating the Picture
+	 * around every carve.
+	 *
+	 * If the input is greater than the height of the Picture, first print an
+	 * error using System.err, then return null.
+	 *
+	 * @param numSeams is the number of horizontal seams to remove
+	 * @return a new picture with numSeams removed
+	 */
+	public Picture carveManyHorizontal(int numSeams){
+		if (numSeams > this.getHeight()){
+			System.err.println("Cannot call carveManyHorizontal with argument " + numSeams + " on image of height " + this.getHeight());
+			return null;
+		}
+		if (numSeams == 0){
+			return new Picture(this);
+		}
+
+		int width = this.getWidth();
+		int height = this.getHeight();
+		int[] transposed = Rotation.transpose(this.getRasterData(), width, height, new int[width * height]);
+
+		//a vertical seam of the transposed pixels is a horizontal seam of this Picture
+		SeamCarver carver = new SeamCarver(transposed, height, width);
+		for (int i = 0; i < numSeams; i++){
+			carver.removeSeam(carver.findSeam());
+		}
+
+		int newHeight = carver.getWidth();
+		return new Picture(width, newHeight, Rotation.transpose(carver.getPixels(), newHeight, width, new int[width * newHeight]));
+	}
+
+	/**
+	 * Returns a Picture shrunk to the size provided by removing vertical and
+	 * horizontal seams. At each step the cheaper of the lowest-energy vertical
+	 * seam and the lowest-energy horizontal seam is removed.
+	 *
+	 * @param targetWidth Width of the returned Picture, at most the width of this Picture.
+	 * @param targetHeight Height of the returned Picture, at most the height of this Picture.
+	 */
+	public Picture retarget(int targetWidth, int targetHeight){
+		return retarget(targetWidth, targetHeight, Retargeter.GREEDY);
+	}
+
+	/**
+	 * Returns a Picture shrunk to the size provided by removing vertical and
+	 * horizontal seams in the order given: Retargeter.GREEDY, or
+	 * Retargeter.TRANSPORT_MAP for the order with the lowest total seam cost.
+	 * The transport map searches a seam for every combination of seam counts,
+	 * so it is only practical for small pictures or small reductions.
+	 *
+	 * If the size is out of range or the order is neither of the two, first
+	 * print an error using System.err, then return null.
+	 *
+	 * @param targetWidth Width of the returned Picture, at most the width of this Picture.
+	 * @param targetHeight Height of the returned Picture, at most the height of this Picture.
+	 * @param order Order in which to remove the seams.
+	 */
+	public Picture retarget(int targetWidth, int targetHeight, int order){
+		if (targetWidth < 1 || targetWidth > this.getWidth() || targetHeight < 1 || targetHeight > this.getHeight()){
+			System.err.println("Cannot call retarget with arguments " + targetWidth + ", " + targetHeight + " on image of width " + this.getWidth() + " and height " + this.getHeight());
+			return null;
+		}
+		if (order != Retargeter.GREEDY && order != Retargeter.TRANSPORT_MAP){
+			System.err.println("Cannot call retarget with order " + order + "; use Retargeter.GREEDY or Retargeter.TRANSPORT_MAP");
+			return null;
+		}
+
+		Retargeter retargeter = new Retargeter(this);
+		retargeter.retarget(targetWidth, targetHeight, order);
+		return retargeter.toPicture();
 	}
 
 
@@ -775,30 +913,38 @@ public class Picture extends SimplePicture
 	 */
 	public Picture chromaKey(int xOfSelected, int yOfSelected, Picture background, int threshold) {
 		// TODO: Write chromaKey (Extension)
-		int newWidth = Math.min(this.getWidth(),background.getWidth());
+		final int newWidth = Math.min(this.getWidth(),background.getWidth());
 		int newHeight = Math.min(this.getHeight(),background.getHeight());
 		Picture newPicture = new Picture(newWidth, newHeight);
 
-		Pixel selected = this.getPixel(xOfSelected,yOfSelected);
-
-		for(int x = 0; x < newPicture.getWidth(); x++) {
-			for(int y = 0; y < newPicture.getHeight(); y++) {
-				Pixel currentPixel = newPicture.getPixel(x, y);
-				Pixel thisPixel = this.getPixel(x, y);
-				Pixel bgPixel = background.getPixel(x, y);
-
-				Color thisColor = thisPixel.getColor();
-				double distance = selected.colorDistance(thisColor);
-
-				//if within threshold, replace currentPixel's color with bgPixel
-				if (distance < threshold){
-					currentPixel.setColor(bgPixel.getColor());
-				}
-				else{
-					currentPixel.setColor(thisPixel.getColor());
+		final int selected = this.getBasicPixel(xOfSelected,yOfSelected);
+		//distance < threshold, compared squared
+		final long limit = Pixel.distanceLimitBelow(threshold);
+
+		final int[] source = this.getRasterData();
+		final int sourceWidth = this.getWidth();
+		final int sourceFill = this.hasAlpha() ? 0 : 0xff000000;
+		final int[] backgroundSource = background.getRasterData();
+		final int backgroundWidth = background.getWidth();
+		final int backgroundFill = background.hasAlpha() ? 0 : 0xff000000;
+		final int[] target = newPicture.getRasterData();
+
+		RowBands.forEach(newWidth, newHeight, new RowBands.Band() {
+			public void run(int top, int bottom) {
+				for(int y = top; y < bottom; y++) {
+					for(int x = 0; x < newWidth; x++) {
+						int thisValue = source[y * sourceWidth + x] | sourceFill;
+						//if within threshold, replace the new pixel's color with the background's
+						if (Pixel.colorDistanceSquared(selected, thisValue) < limit){
+							target[y * newWidth + x] = backgroundSource[y * backgroundWidth + x] | backgroundFill;
+						}
+						else{
+							target[y * newWidth + x] = thisValue;
+						}
+					}
 				}
 			}
-		}
+		});
 		return newPicture;
 	}
 
@@ -855,64 +1001,39 @@ public class Picture extends SimplePicture
 	 */
 	public Picture showEdges(int threshold) {
 		// TODO: Write show edges (Extension)
-		Picture newPicture = new Picture(this);
-		Pixel firstPixel = newPicture.getPixel(0,0);
-		firstPixel.setColor(Color.white);
-		firstPixel.setAlpha(255);
-		//left = x - 1, north = y - 1
-
-		for (int x = 0; x < newPicture.getWidth(); x++){
-			for (int y = 0; y < newPicture.getHeight(); y++){
-
-				//everything on left boundary, not including pixel at (0,0)
-				if (x == 0 && y > 0){
-					Pixel currentPixel = newPicture.getPixel(0,y);
-					Pixel thisPixel = this.getPixel(0, y);
-					Pixel northPixel = this.getPixel(0,y-1);
+		return showEdges(threshold, EdgeOperator.NEIGHBOR);
+	}
 
-					distanceCalculate(currentPixel, thisPixel, northPixel, northPixel, threshold);
-				}
-				//everything on north boundary, not including pixel at (0,0)
-				else if (y == 0 && x > 0){
-					Pixel currentPixel = newPicture.getPixel(x,0);
-					Pixel thisPixel = this.getPixel(x, 0);
-					Pixel leftPixel = this.getPixel(x-1,0);
+	/**
+	 * Finds the edges of this Picture with the operator provided; see
+	 * 	EdgeOperator. The mask of edges is filled in over bands of rows in
+	 * 	parallel, reading the raster directly.
+	 *
+	 * @param threshold
+	 *            Threshold to use to determine the presence of edges.
+	 * @param operator
+	 *            EdgeOperator.NEIGHBOR, EdgeOperator.SOBEL or
+	 *            EdgeOperator.SCHARR.
+	 *
+	 * @return A new Picture that is black at every edge and white elsewhere.
+	 */
+	public Picture showEdges(final int threshold, final EdgeOperator operator) {
+		final int[] pixels = this.getRasterData();
+		final int width = this.getWidth();
+		final int height = this.getHeight();
+		//start from a copy so the new Picture keeps this one's file name and title,
+		//then write the mask over its pixels
+		Picture newPicture = new Picture(this);
+		final int[] edges = newPicture.getRasterData();
 
-					distanceCalculate(currentPixel, thisPixel, leftPixel, leftPixel, threshold);
-				}
-				//everything not on any boundary
-				else if (x > 0 && y > 0){
-					Pixel currentPixel = newPicture.getPixel(x,y);
-					Pixel thisPixel = this.getPixel(x, y);
-					Pixel leftPixel = this.getPixel(x-1, y);
-					Pixel northPixel = this.getPixel(x,y-1);
-					distanceCalculate(currentPixel, thisPixel, leftPixel, northPixel, threshold);
-				}
+		RowBands.forEach(width, height, new RowBands.Band() {
+			public void run(int top, int bottom) {
+				operator.findEdges(pixels, width, height, top, bottom, threshold, edges);
 			}
-		}
+		});
 		return newPicture;
 	}
 
-	//this is a helper method for showEdges() which calculates distance in Color for this Pixel
-	private void distanceCalculate(Pixel currentPixel, Pixel thisPixel, Pixel otherPixel, Pixel otherPixel2, int threshold){
-		Color otherPixelColor = otherPixel.getColor();
-		double distance = thisPixel.colorDistance(otherPixelColor);
-		int intDistance = (int) distance;
-
-		Color otherPixel2Color = otherPixel2.getColor();
-		double distance2 = thisPixel.colorDistance(otherPixel2Color);
-		int intDistance2 = (int) distance2;
-
-		//this OR part is only for pixels not on the boundary. If on boundary, just use the same otherPixel
-		if (intDistance > threshold || intDistance2 > threshold){
-			currentPixel.setColor(Color.black);
-			currentPixel.setAlpha(255);
-		}
-		else {
-			currentPixel.setColor(Color.white);
-			currentPixel.setAlpha(255);
-		}
-	}
 	//////////////////////////////// Blur //////////////////////////////////
 
 	/**
@@ -936,7 +1057,77 @@ public class Picture extends SimplePicture
 	 */
 	public Picture blur(int blurThreshold) {
 		// TODO: Write blur (Extension)
-		return null;
+		int width = this.getWidth();
+		int height = this.getHeight();
+		//a square wider than the picture covers the same pixels as one just as wide,
+		//and keeping the radius that small keeps y + radius and x + radius from overflowing
+		int radius = Math.min(Math.max(blurThreshold, 0), Math.max(width, height));
+		int[] source = this.getRasterData();
+		int[] pixels = new int[width * height];
+
+		//columnSums holds the alpha, red, green and blue sums of each column over
+		//the rows of the square, so moving down a row only adds the row entering
+		//the square and takes away the row leaving it
+		long[] columnSums = new long[4 * width];
+		for (int y = 0; y <= Math.min(radius, height - 1); y++){
+			addRow(source, y * width, width, columnSums, 1);
+		}
+
+		for (int y = 0; y < height; y++){
+			if (y > 0 && y + radius < height){
+				addRow(source, (y + radius) * width, width, columnSums, 1);
+			}
+			if (y - radius - 1 >= 0){
+				addRow(source, (y - radius - 1) * width, width, columnSums, -1);
+			}
+			int rows = Math.min(y + radius, height - 1) - Math.max(y - radius, 0) + 1;
+
+			//slide the square along the row the same way, over the column sums
+			long alpha = 0, red = 0, green = 0, blue = 0;
+			for (int x = 0; x <= Math.min(radius, width - 1); x++){
+				alpha += columnSums[4 * x];
+				red += columnSums[4 * x + 1];
+				green += columnSums[4 * x + 2];
+				blue += columnSums[4 * x + 3];
+			}
+			int offset = y * width;
+			for (int x = 0; x < width; x++){
+				if (x > 0 && x + radius < width){
+					int entering = 4 * (x + radius);
+					alpha += columnSums[entering];
+					red += columnSums[entering + 1];
+					green += columnSums[entering + 2];
+					blue += columnSums[entering + 3];
+				}
+				if (x - radius - 1 >= 0){
+					int leaving = 4 * (x - radius - 1);
+					alpha -= columnSums[leaving];
+					red -= columnSums[leaving + 1];
+					green -= columnSums[leaving + 2];
+					blue -= columnSums[leaving + 3];
+				}
+				//only the pixels that exist are counted
+				long count = (long) rows * (Math.min(x + radius, width - 1) - Math.max(x - radius, 0) + 1);
+				pixels[offset + x] = Pixel.colorValue((int) (alpha / count), (int) (red / count),
+						(int) (green / count), (int) (blue / count));
+			}
+		}
+
+		Picture newPicture = new Picture(this);
+		System.arraycopy(pixels, 0, newPicture.getRasterData(), 0, pixels.length);
+		return newPicture;
+	}
+
+	//this is a helper method for blur() which adds (sign 1) or takes away (sign -1)
+	//the alpha, red, green and blue of each pixel in a row to the sums of its column
+	private static void addRow(int[] source, int offset, int width, long[] columnSums, int sign){
+		for (int x = 0; x < width; x++){
+			int value = source[offset + x];
+			columnSums[4 * x] += sign * ((value >>> 24));
+			columnSums[4 * x + 1] += sign * ((value >> 16) & 0xff);
+			columnSums[4 * x + 2] += sign * ((value >> 8) & 0xff);
+			columnSums[4 * x + 3] += sign * (value & 0xff);
+		}
 	}
 
 	//////////////////////////////// Paint Bucket //////////////////////////////////
@@ -956,70 +1147,62 @@ public class Picture extends SimplePicture
 		// TODO: Write paintBucket (Extension)
 		Picture newPicture = new Picture(this);
 
-		//compare selectedPixel's color with nearby Pixel's color using colorDistance, see if
-		//within threshold or not
-		Pixel selectedPixel = this.getPixel(x,y);
-
-		floodFill(newPicture, selectedPixel, x, y, threshold, newColor);
-		floodFill2(newPicture, selectedPixel, x, y-1, threshold, newColor);
+		//fill every pixel connected to (x, y) whose color distance from the
+		//selected pixel is within the threshold, keeping its alpha; the thread's
+		//FloodFill keeps its stack and mask from one fill to the next
+		FloodFill.forCurrentThread().fill(newPicture.getRasterData(), newPicture.getWidth(),
+				newPicture.getHeight(), x, y, threshold, newColor.getRGB());
 		return newPicture;
 	}
 
-	//helper method, the floodFill algorithm
-	private void floodFill(Picture picture, Pixel selectedPixel, int x, int y, int threshold, Color newColor){
-
-		//quit if off the Picture:
-		if (x < 0 || x >= picture.getWidth() || y < 0 || y >= picture.getHeight()){
-			return;
-		}
-
-		//quit if visited the Pixel already, Pixel visited if already set to newColor:
-		if (picture.getPixel(x,y).getColor() == newColor){
-			return;
-		}
-
-		//quit if hit a Pixel above threshold:
-		if (selectedPixel.colorDistance(picture.getPixel(x,y).getColor()) >= threshold){
-			return;
-		}
-
-		//change color if it is not above threshold
-		if (selectedPixel.colorDistance(picture.getPixel(x,y).getColor()) < threshold){
-			picture.getPixel(x,y).setColor(newColor);
-		}
-
-		//recursively fill in all directions
-		floodFill(picture, selectedPixel,x+1, y, threshold, newColor);
-		floodFill(picture, selectedPixel, x, y+1, threshold, newColor);
-		floodFill(picture, selectedPixel, x-1, y, threshold, newColor);
+	/**
+	 * Paints a region found earlier, so painting many times with the same
+	 * 	selected color and threshold labels the regions only once. With the
+	 * 	regions from labelBucketRegions(x, y, threshold), this gives the same
+	 * 	Picture as paintBucket(x, y, threshold, newColor) for any pixel
+	 * 	(x, y) of the same color, as long as this Picture is unchanged.
+	 *
+	 * @param x x-coordinate of the pixel currently selected.
+	 * @param y y-coordinate of the pixel currently selected.
+	 * @param regions The regions of this Picture.
+	 * @param newColor New color to color pixels.
+	 *
+	 * @return A new Picture where all the pixels in the region of the
+	 * 	selected pixel are colored with the new color provided.
+	 */
+	public Picture paintBucket(int x, int y, RegionLabels regions, Color newColor) {
+		Picture newPicture = new Picture(this);
+		regions.paint(newPicture.getRasterData(), regions.getLabel(x, y), newColor.getRGB());
+		return newPicture;
 	}
 
-	private void floodFill2(Picture picture, Pixel selectedPixel, int x, int y, int threshold, Color newColor){
-
-		//quit if off the Picture:
-		if (x < 0 || x >= picture.getWidth() || y < 0 || y >= picture.getHeight()){
-			return;
-		}
-
-		//quit if visited the Pixel already, Pixel visited if already set to newColor:
-		if (picture.getPixel(x,y).getColor() == newColor){
-			return;
-		}
-
-		//quit if hit a Pixel above threshold:
-		if (selectedPixel.colorDistance(picture.getPixel(x,y).getColor()) >= threshold){
-			return;
-		}
-
-		//change color if it is not above threshold
-		if (selectedPixel.colorDistance(picture.getPixel(x,y).getColor()) < threshold){
-			picture.getPixel(x,y).setColor(newColor);
-		}
+	/**
+	 * Labels the regions paintBucket(x, y, threshold, newColor) could fill
+	 * 	for the color of the pixel at (x, y): every connected region of
+	 * 	pixels whose color distance from it is within the threshold.
+	 *
+	 * @param x x-coordinate of the pixel currently selected.
+	 * @param y y-coordinate of the pixel currently selected.
+	 * @param threshold Threshold within which to paint pixels.
+	 *
+	 * @return The regions, with the area, bounds and mean color of each.
+	 */
+	public RegionLabels labelBucketRegions(int x, int y, int threshold) {
+		return RegionLabels.labelMatching(this.getRasterData(), this.getWidth(),
+				this.getHeight(), this.getBasicPixel(x, y), threshold);
+	}
 
-		//recursively fill in all directions
-		floodFill2(picture, selectedPixel, x, y-1, threshold, newColor);
-		floodFill2(picture, selectedPixel, x+1, y, threshold, newColor);
-		floodFill2(picture, selectedPixel, x-1, y, threshold, newColor);
+	/**
+	 * Labels the regions of this Picture, where neighboring pixels are in the
+	 * 	same region when their color distance is less than the threshold.
+	 *
+	 * @param threshold Threshold within which neighbors are joined.
+	 *
+	 * @return The regions, with the area, bounds and mean color of each.
+	 */
+	public RegionLabels labelRegions(int threshold) {
+		return RegionLabels.label(this.getRasterData(), this.getWidth(),
+				this.getHeight(), threshold);
 	}
 
 	//////////////////////////////// Main Method //////////////////////////////////
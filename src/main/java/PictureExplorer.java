@@ -3,10 +3,12 @@ import java.awt.event.*;
 import java.awt.image.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.*;
+import javax.swing.event.*;
 
 /**
  * Displays a picture and allows exploration of the picture by displaying
@@ -147,6 +149,7 @@ public class PictureExplorer implements MouseMotionListener, ActionListener, Mou
 	private JMenuItem showSeamMenuItem;
 	private JMenuItem carveMenuItem;
 	private JMenuItem carveManyMenuItem;
+	private JMenuItem carveSliderMenuItem;
 
 	private static final String STR_SEAM_CARVING = "Seam Carving";
 	private static final String STR_LUMINOSITY  = "Luminosity";
@@ -154,6 +157,7 @@ public class PictureExplorer implements MouseMotionListener, ActionListener, Mou
 	private static final String STR_SHOW_SEAM    = "Show Seam";
 	private static final String STR_CARVE       = "Carve";
 	private static final String STR_CARVE_MANY   = "Carve Many";
+	private static final String STR_CARVE_SLIDER = "Carve with Slider...";
 
 
 	// Strings used in the ImageDisplay and in the pixel navigation system.
@@ -412,6 +416,7 @@ public class PictureExplorer implements MouseMotionListener, ActionListener, Mou
 		this.showSeamMenuItem 	 = new JMenuItem(STR_SHOW_SEAM);
 		this.carveMenuItem 		 = new JMenuItem(STR_CARVE);
 		this.carveManyMenuItem 	 = new JMenuItem(STR_CARVE_MANY);		
+		this.carveSliderMenuItem 	 = new JMenuItem(STR_CARVE_SLIDER);
 				
 		// Add the action listeners for the seam carving menu.
 		this.luminosityMenuItem.addActionListener(this);
@@ -419,12 +424,14 @@ public class PictureExplorer implements MouseMotionListener, ActionListener, Mou
 		this.showSeamMenuItem.addActionListener(this);
 		this.carveMenuItem.addActionListener(this);
 		this.carveManyMenuItem.addActionListener(this);	
+		this.carveSliderMenuItem.addActionListener(this);
 
 		this.seamCarvingMenu.add(luminosityMenuItem);
 		this.seamCarvingMenu.add(energyMenuItem);
 		this.seamCarvingMenu.add(showSeamMenuItem);
 		this.seamCarvingMenu.add(carveMenuItem);
 		this.seamCarvingMenu.add(carveManyMenuItem);
+		this.seamCarvingMenu.add(carveSliderMenuItem);
 		this.menuBar.add(seamCarvingMenu);
 	}
 	/**
@@ -1174,13 +1181,85 @@ public class PictureExplorer implements MouseMotionListener, ActionListener, Mou
 			createAndInitScrollingImage();
 		}		
 		if (a.getActionCommand().equals(STR_CARVE_MANY)) {
-			int value =  getParameterValue("the number of seams to carve", 1, 30);
+			int value =  getParameterValue("the number of seams to carve", 1, picture.getWidth() - 1);
 			picture = new Picture(picture.carveMany(value));
 			createAndInitScrollingImage();
 		}
+		if (a.getActionCommand().equals(STR_CARVE_SLIDER)) {
+			showCarveSlider();
+		}
 	
 	}
 
+	/**
+	 * Shows a slider that carves the current picture to any width. The seam
+	 * index map is built once when the slider opens, on a background thread
+	 * so the window keeps repainting, and the slider is enabled once it is
+	 * done. Moving the slider only reads the pixels to keep out of the map.
+	 *
+	 * The dialog is modal: while it is open the slider is the only thing
+	 * that changes the picture, so no other edit can be overwritten by it
+	 * and no second slider can be opened.
+	 */
+	private void showCarveSlider() {
+		final Picture source = this.picture;
+		final JSlider slider = new JSlider(1, source.getWidth(), source.getWidth());
+		final JLabel widthLabel = new JLabel("Building seam map...");
+		slider.setEnabled(false);
+
+		final JDialog dialog = new JDialog(this.pictureFrame, STR_CARVE_SLIDER, true);
+		dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		dialog.getContentPane().add(slider, BorderLayout.CENTER);
+		dialog.getContentPane().add(widthLabel, BorderLayout.SOUTH);
+		dialog.pack();
+		dialog.setLocationRelativeTo(this.pictureFrame);
+		dialog.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+		SwingWorker<SeamIndexMap, Void> worker = new SwingWorker<SeamIndexMap, Void>() {
+			protected SeamIndexMap doInBackground() {
+				return new SeamIndexMap(source);
+			}
+
+			protected void done() {
+				// Closed before the map was ready.
+				if (isCancelled())
+					return;
+				dialog.setCursor(Cursor.getDefaultCursor());
+				final SeamIndexMap map;
+				try {
+					map = get();
+				} catch (InterruptedException e) {
+					dialog.dispose();
+					return;
+				} catch (ExecutionException e) {
+					dialog.dispose();
+					JOptionPane.showMessageDialog(pictureFrame,
+							"Could not build the seam map.",
+							"Carve Error",
+							JOptionPane.WARNING_MESSAGE);
+					return;
+				}
+
+				widthLabel.setText("Width: " + map.getWidth());
+				slider.addChangeListener(new ChangeListener() {
+					public void stateChanged(ChangeEvent e) {
+						int width = slider.getValue();
+						widthLabel.setText("Width: " + width);
+						picture = map.toPicture(width);
+						xIndex = Math.min(xIndex, width - 1);
+						zoom(zoomFactor);
+					}
+				});
+				slider.setEnabled(true);
+			}
+		};
+		worker.execute();
+
+		// Blocks until the dialog is closed, handling events meanwhile.
+		dialog.setVisible(true);
+		worker.cancel(false);
+	}
+
 	/**
 	 * Saves the file corresponding to the current picture.
 	 */
@@ -0,0 +1,315 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chain of filters on a Picture that is only worked out when it has to
+ * 	be. Chaining Picture methods, as in pic.grayscale().lighten(20).negate(),
+ * 	copies the whole picture and walks it once per call; the same chain on
+ * 	a pipeline, pic.pipeline().grayscale().lighten(20).negate().toPicture(),
+ * 	copies it once and walks it once, with the same result.
+ *
+ * Point filters, which change each pixel from its own color alone, are only
+ * 	recorded. Consecutive channel-wise filters (lighten, darken, add colors,
+ * 	negate and any ChannelLookup) are combined into one lookup, and a lookup
+ * 	that follows a filter mixing the channels into a gray (grayscale and
+ * 	luminosity) is folded into that filter. The recorded filters are run
+ * 	together, a run of pixels at a time, when a filter that needs each
+ * 	pixel's neighbors (energy, blur and showEdges) is reached or when
+ * 	toPicture() is called.
+ *
+ * The pipeline copies the original Picture the first time it runs filters
+ * 	and works in place on that copy from then on, so the original is never
+ * 	changed. The Picture returned by toPicture() is not changed by further
+ * 	calls on the pipeline either.
+ */
+public class PicturePipeline
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	/** Number of pixels every recorded filter is run over before the next run. */
+	private static final int RUN_LENGTH = 4096;
+
+	//////////////////////////////// Fields ///////////////////////////////////
+
+	/** The Picture the recorded filters apply to. */
+	private Picture current;
+
+	/** True if current is a copy belonging to this pipeline. */
+	private boolean owned;
+
+	/** The filters recorded since current was last worked out. */
+	private List<Stage> stages = new ArrayList<Stage>();
+
+	//////////////////////////// Constructors /////////////////////////////////
+
+	/**
+	 * Starts a pipeline on the Picture provided, which is never changed.
+	 *
+	 * @param picture The Picture to filter.
+	 */
+	public PicturePipeline(Picture picture) {
+		this.current = picture;
+		this.owned = false;
+	}
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Records Picture.grayscale().
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline grayscale() {
+		stages.add(new GrayStage(false));
+		return this;
+	}
+
+	/**
+	 * Records Picture.luminosity().
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline luminosity() {
+		stages.add(new GrayStage(true));
+		return this;
+	}
+
+	/**
+	 * Records Picture.negate().
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline negate() {
+		return lookup(ChannelLookup.negate());
+	}
+
+	/**
+	 * Records Picture.lighten(lightenAmount).
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline lighten(int lightenAmount) {
+		return lookup(ChannelLookup.add(lightenAmount, lightenAmount, lightenAmount));
+	}
+
+	/**
+	 * Records Picture.darken(darkenAmount).
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline darken(int darkenAmount) {
+		return lookup(ChannelLookup.add(-darkenAmount, -darkenAmount, -darkenAmount));
+	}
+
+	/**
+	 * Records Picture.addRed(amount).
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline addRed(int amount) {
+		return lookup(ChannelLookup.add(amount, 0, 0));
+	}
+
+	/**
+	 * Records Picture.addGreen(amount).
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline addGreen(int amount) {
+		return lookup(ChannelLookup.add(0, amount, 0));
+	}
+
+	/**
+	 * Records Picture.addBlue(amount).
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline addBlue(int amount) {
+		return lookup(ChannelLookup.add(0, 0, amount));
+	}
+
+	/**
+	 * Records a channel-wise change, combining it with the filter before it
+	 * 	when that is a lookup or a gray.
+	 *
+	 * @param lookup The change to record.
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline lookup(ChannelLookup lookup) {
+		Stage last = stages.isEmpty() ? null : stages.get(stages.size() - 1);
+		if (last != null && last.then(lookup))
+			return this;
+		stages.add(new LookupStage(lookup));
+		return this;
+	}
+
+	/**
+	 * Runs the recorded filters, then Picture.energy().
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline energy() {
+		return replace(materialize().energy());
+	}
+
+	/**
+	 * Runs the recorded filters, then Picture.blur(blurThreshold).
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline blur(int blurThreshold) {
+		return replace(materialize().blur(blurThreshold));
+	}
+
+	/**
+	 * Runs the recorded filters, then Picture.showEdges(threshold).
+	 *
+	 * @return This pipeline.
+	 */
+	public PicturePipeline showEdges(int threshold) {
+		return replace(materialize().showEdges(threshold));
+	}
+
+	/**
+	 * Runs the recorded filters.
+	 *
+	 * @return A Picture holding the result of every filter in the pipeline;
+	 * 	the original Picture if there were none.
+	 */
+	public Picture toPicture() {
+		Picture result = materialize();
+		// The pipeline must not change a Picture it has handed out.
+		owned = false;
+		return result;
+	}
+
+	/**
+	 * Continues the pipeline from a new Picture made by a filter, which
+	 * 	belongs to the pipeline.
+	 */
+	private PicturePipeline replace(Picture picture) {
+		current = picture;
+		owned = true;
+		return this;
+	}
+
+	/**
+	 * Runs the recorded filters on current, copying it first if it does not
+	 * 	belong to the pipeline, and forgets them.
+	 *
+	 * @return current.
+	 */
+	private Picture materialize() {
+		if (stages.isEmpty())
+			return current;
+		if (!owned) {
+			current = new Picture(current);
+			owned = true;
+		}
+
+		final int[] pixels = current.getRasterData();
+		final int width = current.getWidth();
+		final int alphaFill = current.hasAlpha() ? 0 : 0xff000000;
+		final Stage[] run = stages.toArray(new Stage[stages.size()]);
+		stages.clear();
+
+		// Each band of rows is taken RUN_LENGTH pixels at a time through
+		// every stage, so the pixels stay in cache between stages.
+		RowBands.forEach(width, current.getHeight(), new RowBands.Band() {
+			public void run(int top, int bottom) {
+				int[] scratch = new int[RUN_LENGTH];
+				int end = bottom * width;
+				for (int from = top * width; from < end; from += RUN_LENGTH) {
+					int to = Math.min(from + RUN_LENGTH, end);
+					for (Stage stage : run)
+						stage.apply(pixels, from, to, alphaFill, scratch);
+				}
+			}
+		});
+		return current;
+	}
+
+	/**
+	 * A recorded point filter.
+	 */
+	private static abstract class Stage
+	{
+		/**
+		 * Changes a run of at most RUN_LENGTH color values in place.
+		 *
+		 * @param pixels The color values.
+		 * @param from The first index to change.
+		 * @param to One past the last index to change.
+		 * @param alphaFill Bits ORed into every value before it is read.
+		 * @param scratch An array of RUN_LENGTH values the stage may use.
+		 */
+		abstract void apply(int[] pixels, int from, int to, int alphaFill,
+				int[] scratch);
+
+		/**
+		 * Combines a lookup that follows this stage into it, if it can.
+		 *
+		 * @return True if the lookup was combined.
+		 */
+		abstract boolean then(ChannelLookup next);
+	}
+
+	/**
+	 * A channel-wise change.
+	 */
+	private static class LookupStage extends Stage
+	{
+		private ChannelLookup lookup;
+
+		LookupStage(ChannelLookup lookup) {
+			this.lookup = lookup;
+		}
+
+		void apply(int[] pixels, int from, int to, int alphaFill, int[] scratch) {
+			lookup.apply(pixels, from, to, alphaFill);
+		}
+
+		boolean then(ChannelLookup next) {
+			lookup = lookup.then(next);
+			return true;
+		}
+	}
+
+	/**
+	 * Sets red, green and blue to a gray worked out from all three, the
+	 * 	average as Picture.grayscale() does or the luminosity as
+	 * 	Picture.luminosity() does, followed by an optional lookup.
+	 */
+	private static class GrayStage extends Stage
+	{
+		private boolean luminosity;
+
+		/** Color of each gray from 0 to 255, or null for the gray itself. */
+		private ChannelLookup after;
+
+		GrayStage(boolean luminosity) {
+			this.luminosity = luminosity;
+		}
+
+		void apply(int[] pixels, int from, int to, int alphaFill, int[] scratch) {
+			if (luminosity) {
+				PixelKernels.luminosity(pixels, from, scratch, 0, to - from);
+				for (int i = from; i < to; i++)
+					pixels[i] = ((pixels[i] | alphaFill) & 0xff000000)
+							| (scratch[i - from] * 0x010101);
+			} else {
+				PixelKernels.grayscale(pixels, from, to);
+			}
+			if (after != null)
+				after.apply(pixels, from, to, alphaFill);
+		}
+
+		boolean then(ChannelLookup next) {
+			after = after == null ? next : after.then(next);
+			return true;
+		}
+	}
+
+} // End of PicturePipeline class
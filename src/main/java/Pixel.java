@@ -50,6 +50,40 @@ public class Pixel
 	 */
 	public int getY() { return y; }
 
+	/**
+	 * Moves this Pixel to another location in the same SimplePicture. This
+	 * 	lets one Pixel object be reused for every location in a loop,
+	 * 	instead of creating a new Pixel for each one.
+	 * 
+	 * @param x The new x location of the Pixel.
+	 * @param y The new y location of the Pixel.
+	 * 
+	 * @return This Pixel, now at (x, y).
+	 */
+	public Pixel moveTo(int x, int y) {
+		this.x = x;
+		this.y = y;
+		return this;
+	}
+
+	/**
+	 * @return The color of this Pixel as a 32-bit int, with alpha, red,
+	 * 	green, blue each taking 8 bits from left to right.
+	 */
+	public int getColorValue() {
+		return picture.getBasicPixel(x, y);
+	}
+
+	/**
+	 * Sets the color of this Pixel from a 32-bit int, with alpha, red,
+	 * 	green, blue each taking 8 bits from left to right.
+	 * 
+	 * @param value The new color value.
+	 */
+	public void setColorValue(int value) {
+		picture.setBasicPixel(x, y, value);
+	}
+
 	/**
 	 * @param value Value to extract bits from.
 	 * @param pos Position to start extracting bits from.
@@ -73,6 +107,29 @@ public class Pixel
 		return alpha;
 	}
 
+	/**
+	 * @param value A color value.
+	 * 
+	 * @return The alpha component of the provided color value.
+	 */
+	public static int getAlpha(int value) {
+		int alpha = extractEightBits(value, 24);
+		return alpha;
+	}
+
+	/**
+	 * @param alpha The alpha component, from 0 to 255.
+	 * @param red The red component, from 0 to 255.
+	 * @param green The green component, from 0 to 255.
+	 * @param blue The blue component, from 0 to 255.
+	 * 
+	 * @return A color value with alpha, red, green, blue each taking
+	 * 	8 bits from left to right.
+	 */
+	public static int colorValue(int alpha, int red, int green, int blue) {
+		return (alpha << 24) | (red << 16) | (green << 8) | blue;
+	}
+
 	/**
 	 * @return The amount of red at this Pixel. The value varies
 	 * 	from 0 for none to 255 for maximum.
@@ -172,7 +229,9 @@ public class Pixel
 		int blue = newColor.getBlue();
 
 		// Update the associated picture.
-		updatePicture(this.getAlpha(), red, green, blue);
+		int current = picture.getBasicPixel(x, y);
+		picture.setBasicPixel(x, y, (current & 0xff000000) | (red << 16)
+				| (green << 8) | blue);
 	}
 
 	/**
@@ -196,7 +255,7 @@ public class Pixel
 	 * @param value The value to correct.
 	 * @return A value between 0 and 255.
 	 */
-	private static int correctValue(int value) {
+	static int correctValue(int value) {
 		if (value < 0)
 			value = 0;
 		if (value > 255)
@@ -215,7 +274,8 @@ public class Pixel
 		int red = correctValue(value);
 
 		// Update the pixel value in the picture.
-		updatePicture(getAlpha(), red, getGreen(), getBlue());
+		int current = picture.getBasicPixel(x, y);
+		picture.setBasicPixel(x, y, (current & 0xff00ffff) | (red << 16));
 	} 
 
 	/**
@@ -228,7 +288,8 @@ public class Pixel
 		int green = correctValue(value);
 
 		// Update the pixel value in the picture.
-		updatePicture(getAlpha(), getRed(), green, getBlue());
+		int current = picture.getBasicPixel(x, y);
+		picture.setBasicPixel(x, y, (current & 0xffff00ff) | (green << 8));
 	} 
 
 	/**
@@ -241,7 +302,8 @@ public class Pixel
 		int blue = correctValue(value);
 
 		// Update the pixel value in the picture.
-		updatePicture(getAlpha(), getRed(), getGreen(), blue);
+		int current = picture.getBasicPixel(x, y);
+		picture.setBasicPixel(x, y, (current & 0xffffff00) | blue);
 	} 
 
 	/**
@@ -254,7 +316,8 @@ public class Pixel
 		int alpha = correctValue(value);
 
 		// Update the associated picture.
-		updatePicture(alpha, getRed(), getGreen(), getBlue());
+		int current = picture.getBasicPixel(x, y);
+		picture.setBasicPixel(x, y, (current & 0x00ffffff) | (alpha << 24));
 	} 
 
 	/**
@@ -266,9 +329,10 @@ public class Pixel
 	 * @return The distance between this pixel's color and the passed color.
 	 */
 	public double colorDistance(Color otherColor) {
-		double redDistance = this.getRed() - otherColor.getRed();
-		double greenDistance = this.getGreen() - otherColor.getGreen();
-		double blueDistance = this.getBlue() - otherColor.getBlue();
+		int value = picture.getBasicPixel(x, y);
+		double redDistance = getRed(value) - otherColor.getRed();
+		double greenDistance = getGreen(value) - otherColor.getGreen();
+		double blueDistance = getBlue(value) - otherColor.getBlue();
 		double distance = Math.sqrt(redDistance * redDistance + 
 				greenDistance * greenDistance +
 				blueDistance * blueDistance);
@@ -293,6 +357,69 @@ public class Pixel
 		return distance;
 	}
 
+	/**
+	 * Computes the color distance between two color values, ignoring alpha.
+	 * 
+	 * @param value1 A color value.
+	 * @param value2 A color value.
+	 * 
+	 * @return The distance between the two colors.
+	 */
+	public static double colorDistance(int value1, int value2) {
+		double redDistance = getRed(value1) - getRed(value2);
+		double greenDistance = getGreen(value1) - getGreen(value2);
+		double blueDistance = getBlue(value1) - getBlue(value2);
+		double distance = Math.sqrt(redDistance * redDistance + 
+				greenDistance * greenDistance +
+				blueDistance * blueDistance);
+		return distance;
+	}
+
+	/**
+	 * Computes the square of the color distance between two color values,
+	 * 	ignoring alpha. This is exact and needs no square root, so comparing
+	 * 	it with the square of a threshold is faster than calling
+	 * 	colorDistance.
+	 * 
+	 * @param value1 A color value.
+	 * @param value2 A color value.
+	 * 
+	 * @return The distance between the two colors, squared.
+	 */
+	public static int colorDistanceSquared(int value1, int value2) {
+		int redDistance = ((value1 >> 16) & 0xff) - ((value2 >> 16) & 0xff);
+		int greenDistance = ((value1 >> 8) & 0xff) - ((value2 >> 8) & 0xff);
+		int blueDistance = (value1 & 0xff) - (value2 & 0xff);
+		return redDistance * redDistance + greenDistance * greenDistance
+				+ blueDistance * blueDistance;
+	}
+
+	/**
+	 * @param threshold A threshold on the color distance.
+	 * 
+	 * @return The squared distance below which colorDistance(value1, value2)
+	 * 	< threshold: colorDistanceSquared(value1, value2) < the result exactly
+	 * 	when colorDistance(value1, value2) < threshold. It is 0 for a
+	 * 	threshold of 0 or less, since no distance is less than that.
+	 */
+	public static long distanceLimitBelow(int threshold) {
+		return threshold <= 0 ? 0 : (long) threshold * threshold;
+	}
+
+	/**
+	 * @param threshold A threshold on the color distance.
+	 * 
+	 * @return The squared distance from which (int) colorDistance(value1,
+	 * 	value2) > threshold: colorDistanceSquared(value1, value2) >= the
+	 * 	result exactly when (int) colorDistance(value1, value2) > threshold.
+	 * 	The distance rounded down is more than threshold when the distance
+	 * 	is at least threshold + 1, so this is (threshold + 1) squared, or 0
+	 * 	for a negative threshold, which every distance is more than.
+	 */
+	public static long distanceLimitAbove(int threshold) {
+		return threshold < 0 ? 0 : (threshold + 1L) * (threshold + 1L);
+	}
+
 	/** 
 	 * @return The average of the red, green, and blue values of this Pixel.
 	 */
@@ -319,10 +446,7 @@ public class Pixel
 		}
 		
 		Pixel otherPixel = (Pixel) obj;
-		return (this.getAlpha() == otherPixel.getAlpha()) &&
-		(this.getRed() == otherPixel.getRed()) &&
-		(this.getGreen() == otherPixel.getGreen()) &&
-		(this.getBlue() == otherPixel.getBlue());
+		return this.getColorValue() == otherPixel.getColorValue();
 	}
 
 } // End of Pixel class
@@ -0,0 +1,135 @@
+/**
+ * Bulk loops over runs of a packed int raster. The inner loops are kept to
+ * 	straight int arithmetic on consecutive elements with no calls and no
+ * 	branches where the result allows it, which is the form HotSpot's
+ * 	compiler turns into SIMD instructions, so several pixels are handled
+ * 	per instruction on any JDK. Divisions by a constant are done as a
+ * 	multiply and a shift that give the same result over the range of
+ * 	values that can occur.
+ *
+ * The one exception is the second loop of luminosity. For a weighted sum
+ * 	that is an exact multiple of 100, EnergyMap.luminosity rounds the sum
+ * 	of doubles instead, which can come out one lower, so that loop has a
+ * 	branch and calls EnergyMap.luminosity for those pixels. Only about one
+ * 	sum in a hundred takes it, and the first loop is still branch-free.
+ *
+ * Every kernel works on the range [from, to) of its arrays, so a raster
+ * 	can be processed in pieces.
+ */
+public class PixelKernels
+{
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Fills in the luminosity of a run of color values, with the same
+	 * 	result as EnergyMap.luminosity. The weighted sums are formed in one
+	 * 	pass and divided by 100 in a second; only the sums that are exact
+	 * 	multiples of 100 are recomputed with doubles.
+	 *
+	 * @param pixels The color values.
+	 * @param luminosity The array to fill.
+	 * @param from The first index to convert.
+	 * @param to One past the last index to convert.
+	 */
+	public static void luminosity(int[] pixels, int[] luminosity, int from,
+			int to) {
+		luminosity(pixels, from, luminosity, from, to - from);
+	}
+
+	/**
+	 * Fills in the luminosity of a run of color values into a run of an
+	 * 	array that may start at a different index, such as a small scratch
+	 * 	array reused for each part of a raster.
+	 *
+	 * @param pixels The color values.
+	 * @param pixelOffset The index of the first color value to convert.
+	 * @param luminosity The array to fill.
+	 * @param luminosityOffset The index to store the first luminosity at.
+	 * @param length The number of values to convert.
+	 */
+	public static void luminosity(int[] pixels, int pixelOffset,
+			int[] luminosity, int luminosityOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			int value = pixels[pixelOffset + i];
+			luminosity[luminosityOffset + i] = 21 * ((value >> 16) & 0xff)
+					+ 72 * ((value >> 8) & 0xff) + 7 * (value & 0xff);
+		}
+		for (int i = 0; i < length; i++) {
+			int weighted = luminosity[luminosityOffset + i];
+			// weighted / 100 for weighted from 0 to 25500
+			int result = (weighted * 5243) >>> 19;
+			if (result * 100 == weighted)
+				result = EnergyMap.luminosity(pixels[pixelOffset + i]);
+			luminosity[luminosityOffset + i] = result;
+		}
+	}
+
+	/**
+	 * Fills in the energy of one row, as EnergyMap.computeEnergy does. All
+	 * 	but the last pixel are compared with the pixel to their right in
+	 * 	one loop; the last pixel is compared with the one to its left.
+	 *
+	 * @param luminosity The luminosity of each pixel, in row-major order.
+	 * @param energy The array to fill, in row-major order.
+	 * @param offset Index of the row's first pixel.
+	 * @param verticalOffset Index of the first pixel of the row to compare
+	 * 	with vertically, or -1 if there is none.
+	 * @param width The width of the row.
+	 */
+	public static void energyRow(int[] luminosity, int[] energy, int offset,
+			int verticalOffset, int width) {
+		int last = width - 1;
+		if (verticalOffset < 0) {
+			for (int x = 0; x < last; x++)
+				energy[offset + x] = Math.abs(luminosity[offset + x + 1]
+						- luminosity[offset + x]);
+		} else {
+			for (int x = 0; x < last; x++)
+				energy[offset + x] = Math.abs(luminosity[offset + x + 1]
+						- luminosity[offset + x])
+						+ Math.abs(luminosity[verticalOffset + x]
+						- luminosity[offset + x]);
+		}
+
+		int here = luminosity[offset + last];
+		int horizontal = last > 0
+				? Math.abs(luminosity[offset + last - 1] - here) : 0;
+		int vertical = verticalOffset >= 0
+				? Math.abs(luminosity[verticalOffset + last] - here) : 0;
+		energy[offset + last] = horizontal + vertical;
+	}
+
+	/**
+	 * Sets each color value to the gray whose red, green and blue are the
+	 * 	average of its own, rounded down, keeping its alpha.
+	 *
+	 * @param pixels The color values to change.
+	 * @param from The first index to change.
+	 * @param to One past the last index to change.
+	 */
+	public static void grayscale(int[] pixels, int from, int to) {
+		for (int i = from; i < to; i++) {
+			int value = pixels[i];
+			int sum = ((value >> 16) & 0xff) + ((value >> 8) & 0xff)
+					+ (value & 0xff);
+			// sum / 3 for sum from 0 to 765
+			int average = (sum * 43691) >>> 17;
+			pixels[i] = (value & 0xff000000) | (average * 0x010101);
+		}
+	}
+
+	/**
+	 * Replaces red, green and blue with 255 minus themselves, keeping alpha.
+	 *
+	 * @param pixels The color values to change.
+	 * @param from The first index to change.
+	 * @param to One past the last index to change.
+	 */
+	public static void negate(int[] pixels, int from, int to) {
+		//255 - value is the same as flipping all 8 bits of each of R, G and B
+		for (int i = from; i < to; i++)
+			pixels[i] ^= 0x00ffffff;
+	}
+
+} // End of PixelKernels class
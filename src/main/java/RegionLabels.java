@@ -0,0 +1,502 @@
+import java.awt.Rectangle;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a picture into regions of similar colors and numbers them. Every
+ * 	pixel gets the number of its region, its label, in a plane with the same
+ * 	row-major layout as the raster, and the area, bounds and mean color of
+ * 	each region are recorded.
+ *
+ * Two kinds of region can be found, both with the color distance and the
+ * 	"less than the threshold" rule of Picture.paintBucket:
+ *
+ * 	(a) label(): neighboring pixels, left, right, up or down, are in the same
+ * 		region when their color distance is less than the threshold. Every
+ * 		pixel is in a region.
+ * 	(b) labelMatching(): the regions are the connected groups of pixels whose
+ * 		color distance from one color is less than the threshold, which are
+ * 		exactly the regions paintBucket fills when that color is selected.
+ * 		Pixels that do not match are in no region and are labeled -1.
+ *
+ * Labels are found with union-find in two passes. The rows are split into
+ * 	tiles, as many as RowBands would use. Each tile is labeled on its own,
+ * 	adjacent tiles are merged along their border, pairs of merged tiles are
+ * 	merged with their neighbors and so on, with independent merges run in
+ * 	parallel; then every pixel is given the number of its region. Regions
+ * 	are numbered from 0 in the order of their first pixel in row-major
+ * 	order, so the result does not depend on how the rows were split.
+ */
+public class RegionLabels
+{
+
+	//////////////////////////////// Fields ///////////////////////////////////
+
+	/** Width of the picture. */
+	private int width;
+
+	/** Height of the picture. */
+	private int height;
+
+	/** Number of regions. */
+	private int count;
+
+	/** Region of each pixel, in row-major order; -1 for pixels in none. */
+	private int[] labels;
+
+	/** Number of pixels in each region. */
+	private int[] area;
+
+	/** Smallest x-coordinate of each region. */
+	private int[] minX;
+
+	/** Smallest y-coordinate of each region. */
+	private int[] minY;
+
+	/** Largest x-coordinate of each region. */
+	private int[] maxX;
+
+	/** Largest y-coordinate of each region. */
+	private int[] maxY;
+
+	/** Sum of the reds of each region. */
+	private long[] sumRed;
+
+	/** Sum of the greens of each region. */
+	private long[] sumGreen;
+
+	/** Sum of the blues of each region. */
+	private long[] sumBlue;
+
+	//////////////////////////// Constructors /////////////////////////////////
+
+	/**
+	 * Labels the regions of a raster and records their statistics.
+	 *
+	 * @param pixels The color values, in row-major order.
+	 * @param width The width of the picture.
+	 * @param height The height of the picture.
+	 * @param mask 1 for each pixel that can be in a region, or null to join
+	 * 	neighbors by their own color distance.
+	 * @param limit The squared distance from Pixel.distanceLimitBelow; neighbors
+	 * 	closer than this are joined.
+	 */
+	private RegionLabels(int[] pixels, int width, int height, byte[] mask,
+			long limit) {
+		this.width = width;
+		this.height = height;
+		this.labels = new int[width * height];
+
+		Labeler labeler = new Labeler(pixels, width, height, mask, limit, labels);
+		this.count = labeler.run();
+		computeStatistics(pixels);
+	}
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Labels the regions of pixels joined to their neighbors by a color
+	 * 	distance less than the threshold.
+	 *
+	 * @param pixels The color values, in row-major order.
+	 * @param width The width of the picture.
+	 * @param height The height of the picture.
+	 * @param threshold Neighbors whose color distance is less than this are
+	 * 	in the same region.
+	 *
+	 * @return The regions.
+	 */
+	public static RegionLabels label(int[] pixels, int width, int height,
+			int threshold) {
+		return new RegionLabels(pixels, width, height, null,
+				Pixel.distanceLimitBelow(threshold));
+	}
+
+	/**
+	 * Labels the connected regions of pixels whose color distance from a
+	 * 	color is less than the threshold.
+	 *
+	 * @param pixels The color values, in row-major order.
+	 * @param width The width of the picture.
+	 * @param height The height of the picture.
+	 * @param color The color to compare with.
+	 * @param threshold Pixels whose color distance from color is less than
+	 * 	this are in a region.
+	 *
+	 * @return The regions.
+	 */
+	public static RegionLabels labelMatching(final int[] pixels, int width,
+			int height, int color, int threshold) {
+		final byte[] mask = new byte[width * height];
+		final long limit = Pixel.distanceLimitBelow(threshold);
+		final int selected = color;
+		final int rowLength = width;
+		RowBands.forEach(width, height, new RowBands.Band() {
+			public void run(int top, int bottom) {
+				for (int i = top * rowLength; i < bottom * rowLength; i++)
+					mask[i] = (byte) (Pixel.colorDistanceSquared(pixels[i], selected)
+							< limit ? 1 : 0);
+			}
+		});
+		return new RegionLabels(pixels, width, height, mask, limit);
+	}
+
+	/**
+	 * @return The width of the picture.
+	 */
+	public int getWidth() { return width; }
+
+	/**
+	 * @return The height of the picture.
+	 */
+	public int getHeight() { return height; }
+
+	/**
+	 * @return The number of regions.
+	 */
+	public int getRegionCount() { return count; }
+
+	/**
+	 * @param x The x-coordinate of the pixel.
+	 * @param y The y-coordinate of the pixel.
+	 *
+	 * @return The region of the pixel at (x, y), or -1 if it is in none.
+	 */
+	public int getLabel(int x, int y) {
+		return labels[y * width + x];
+	}
+
+	/**
+	 * @return The region of each pixel, in row-major order, -1 for pixels in
+	 * 	none. This is the array itself, not a copy.
+	 */
+	public int[] getLabels() { return labels; }
+
+	/**
+	 * @param region A region, from 0 to getRegionCount() - 1.
+	 *
+	 * @return The number of pixels in the region.
+	 */
+	public int getArea(int region) { return area[region]; }
+
+	/**
+	 * @param region A region, from 0 to getRegionCount() - 1.
+	 *
+	 * @return The smallest rectangle holding every pixel of the region.
+	 */
+	public Rectangle getBounds(int region) {
+		return new Rectangle(minX[region], minY[region],
+				maxX[region] - minX[region] + 1, maxY[region] - minY[region] + 1);
+	}
+
+	/**
+	 * @param region A region, from 0 to getRegionCount() - 1.
+	 *
+	 * @return The color value whose red, green and blue are the averages over
+	 * 	the region, rounded down, with an alpha of 255.
+	 */
+	public int getMeanColor(int region) {
+		int n = area[region];
+		return Pixel.colorValue(255, (int) (sumRed[region] / n),
+				(int) (sumGreen[region] / n), (int) (sumBlue[region] / n));
+	}
+
+	/**
+	 * Paints every pixel of a region, keeping each pixel's alpha.
+	 *
+	 * @param pixels The color values to paint, in row-major order.
+	 * @param region The region to paint; nothing is painted for -1.
+	 * @param newValue The color to paint.
+	 *
+	 * @return The number of pixels painted.
+	 */
+	public int paint(int[] pixels, int region, int newValue) {
+		if (region < 0)
+			return 0;
+		int color = newValue & 0xffffff;
+		// Every pixel of the region lies within its bounds.
+		for (int y = minY[region]; y <= maxY[region]; y++) {
+			int offset = y * width;
+			for (int i = offset + minX[region]; i <= offset + maxX[region]; i++)
+				if (labels[i] == region)
+					pixels[i] = (pixels[i] & 0xff000000) | color;
+		}
+		return area[region];
+	}
+
+	/**
+	 * @return A new Picture with every region painted its mean color and
+	 * 	every pixel in no region black.
+	 */
+	public Picture toPicture() {
+		int[] means = new int[count];
+		for (int region = 0; region < count; region++)
+			means[region] = getMeanColor(region);
+		int[] pixels = new int[labels.length];
+		for (int i = 0; i < labels.length; i++)
+			pixels[i] = labels[i] < 0 ? 0xff000000 : means[labels[i]];
+		return new Picture(width, height, pixels);
+	}
+
+	/**
+	 * Fills in the area, bounds and color sums of every region.
+	 */
+	private void computeStatistics(int[] pixels) {
+		area = new int[count];
+		minX = new int[count];
+		minY = new int[count];
+		maxX = new int[count];
+		maxY = new int[count];
+		sumRed = new long[count];
+		sumGreen = new long[count];
+		sumBlue = new long[count];
+		for (int y = 0; y < height; y++) {
+			int offset = y * width;
+			int x = 0;
+			while (x < width) {
+				// Take the run of pixels of the same region at once.
+				int region = labels[offset + x];
+				int start = x;
+				while (x < width && labels[offset + x] == region) {
+					if (region >= 0) {
+						int value = pixels[offset + x];
+						sumRed[region] += (value >> 16) & 0xff;
+						sumGreen[region] += (value >> 8) & 0xff;
+						sumBlue[region] += value & 0xff;
+					}
+					x++;
+				}
+				if (region < 0)
+					continue;
+				// Regions are numbered in the order of their first pixel.
+				if (area[region] == 0) {
+					minX[region] = start;
+					minY[region] = y;
+				}
+				area[region] += x - start;
+				minX[region] = Math.min(minX[region], start);
+				maxX[region] = Math.max(maxX[region], x - 1);
+				maxY[region] = y;
+			}
+		}
+	}
+
+	/**
+	 * The union-find labeling of one picture. Each pixel starts as its own
+	 * 	set; joining two sets makes the smaller root the parent of the
+	 * 	larger, so the root of every set is its first pixel in row-major
+	 * 	order and every set lies within the rows of the tiles merged so far.
+	 */
+	private static class Labeler
+	{
+		private int[] pixels;
+		private int width;
+		private byte[] mask;
+		private long limit;
+		private int[] labels;
+
+		/** Parent of each pixel in its set; the root is its own parent. */
+		private int[] parent;
+
+		/** First row of each tile, and the height as a last entry. */
+		private int[] tileTop;
+
+		/** Number of regions whose first pixel is in each tile. */
+		private int[] tileRoots;
+
+		Labeler(int[] pixels, int width, int height, byte[] mask, long limit,
+				int[] labels) {
+			this.pixels = pixels;
+			this.width = width;
+			this.mask = mask;
+			this.limit = limit;
+			this.labels = labels;
+			this.parent = new int[width * height];
+
+			int tiles = RowBands.bandCount(width, height);
+			this.tileTop = new int[tiles + 1];
+			for (int tile = 0; tile <= tiles; tile++)
+				tileTop[tile] = (int) ((long) tile * height / tiles);
+			this.tileRoots = new int[tiles];
+		}
+
+		/**
+		 * Labels every pixel.
+		 *
+		 * @return The number of regions.
+		 */
+		int run() {
+			invoke(TileTask.UNITE);
+			invoke(TileTask.FLATTEN);
+			// Number the regions of each tile after those of the tiles above.
+			int first = 0;
+			for (int tile = 0; tile < tileRoots.length; tile++) {
+				int roots = tileRoots[tile];
+				tileRoots[tile] = first;
+				first += roots;
+			}
+			invoke(TileTask.NUMBER_ROOTS);
+			invoke(TileTask.NUMBER_REST);
+			return first;
+		}
+
+		private void invoke(int stage) {
+			TileTask task = new TileTask(this, stage, 0, tileRoots.length);
+			if (tileRoots.length > 1)
+				RowBands.getPool().invoke(task);
+			else
+				task.invoke();
+		}
+
+		/**
+		 * @return True if the pixels at i and j belong in the same region.
+		 */
+		private boolean joins(int i, int j) {
+			if (mask != null)
+				return mask[i] != 0 && mask[j] != 0;
+			return Pixel.colorDistanceSquared(pixels[i], pixels[j]) < limit;
+		}
+
+		/**
+		 * @return The root of the set of pixel i, halving the path to it.
+		 */
+		private int find(int i) {
+			while (parent[i] != i) {
+				parent[i] = parent[parent[i]];
+				i = parent[i];
+			}
+			return i;
+		}
+
+		private void union(int i, int j) {
+			int first = find(i);
+			int second = find(j);
+			if (first < second)
+				parent[second] = first;
+			else if (second < first)
+				parent[first] = second;
+		}
+
+		/**
+		 * First pass over one tile: joins each pixel with its left and upper
+		 * 	neighbors within the tile.
+		 */
+		void unite(int tile) {
+			int top = tileTop[tile];
+			int bottom = tileTop[tile + 1];
+			for (int y = top; y < bottom; y++) {
+				int offset = y * width;
+				for (int x = 0; x < width; x++) {
+					int i = offset + x;
+					boolean left = x > 0 && joins(i - 1, i);
+					boolean up = y > top && joins(i - width, i);
+					// A new pixel is a set of its own, so it can be pointed
+					// straight at the root of the set it joins.
+					if (left && up) {
+						int root = find(i - 1);
+						parent[i] = root;
+						union(root, i - width);
+					} else if (left) {
+						parent[i] = find(i - 1);
+					} else if (up) {
+						parent[i] = find(i - width);
+					} else {
+						parent[i] = i;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Joins the pixels of row y with the pixels above them.
+		 */
+		void mergeBorder(int y) {
+			int offset = y * width;
+			for (int i = offset; i < offset + width; i++)
+				if (joins(i - width, i))
+					union(i - width, i);
+		}
+
+		/**
+		 * Points every pixel of a tile straight at its root and counts the
+		 * 	roots of regions in the tile.
+		 */
+		void flatten(int tile) {
+			int roots = 0;
+			for (int i = tileTop[tile] * width; i < tileTop[tile + 1] * width; i++) {
+				// Other tiles only ever replace a parent with one of its
+				// ancestors, so following parents reaches the root either way.
+				int root = i;
+				while (parent[root] != root)
+					root = parent[root];
+				parent[i] = root;
+				if (root == i && (mask == null || mask[i] != 0))
+					roots++;
+			}
+			tileRoots[tile] = roots;
+		}
+
+		/**
+		 * Numbers the roots of a tile, starting at the number given to it.
+		 */
+		void numberRoots(int tile) {
+			int next = tileRoots[tile];
+			for (int i = tileTop[tile] * width; i < tileTop[tile + 1] * width; i++)
+				if (parent[i] == i)
+					labels[i] = (mask == null || mask[i] != 0) ? next++ : -1;
+		}
+
+		/**
+		 * Gives every other pixel of a tile the number of its root.
+		 */
+		void numberRest(int tile) {
+			for (int i = tileTop[tile] * width; i < tileTop[tile + 1] * width; i++)
+				if (parent[i] != i)
+					labels[i] = labels[parent[i]];
+		}
+	}
+
+	/**
+	 * Runs one stage of the labeling over the tiles from low to high - 1,
+	 * 	splitting them in half until one is left. For the first stage the
+	 * 	two halves are merged along their border once both are done.
+	 */
+	private static class TileTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 0;
+
+		static final int UNITE = 0;
+		static final int FLATTEN = 1;
+		static final int NUMBER_ROOTS = 2;
+		static final int NUMBER_REST = 3;
+
+		private Labeler labeler;
+		private int stage;
+		private int low;
+		private int high;
+
+		TileTask(Labeler labeler, int stage, int low, int high) {
+			this.labeler = labeler;
+			this.stage = stage;
+			this.low = low;
+			this.high = high;
+		}
+
+		protected void compute() {
+			if (high - low > 1) {
+				int middle = (low + high) >>> 1;
+				invokeAll(new TileTask(labeler, stage, low, middle),
+						new TileTask(labeler, stage, middle, high));
+				if (stage == UNITE)
+					labeler.mergeBorder(labeler.tileTop[middle]);
+				return;
+			}
+			switch (stage) {
+			case UNITE: labeler.unite(low); break;
+			case FLATTEN: labeler.flatten(low); break;
+			case NUMBER_ROOTS: labeler.numberRoots(low); break;
+			default: labeler.numberRest(low); break;
+			}
+		}
+	}
+
+} // End of RegionLabels class
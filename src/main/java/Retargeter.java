@@ -0,0 +1,428 @@
+/**
+ * Shrinks a picture to a target width and height by removing both vertical
+ * 	and horizontal seams. The pixels, luminosity and energy of the picture
+ * 	are kept in one set of buffers for the whole job: removing a seam shifts
+ * 	the pixels past it and recomputes the energy only next to the seam, and
+ * 	the seam searches reuse the same scratch rows and parent table.
+ *
+ * The order in which seams are removed can be chosen:
+ *
+ * 	(a) Retargeter.GREEDY: at each step, find the cheapest vertical and the
+ * 		cheapest horizontal seam and remove whichever costs less.
+ * 	(b) Retargeter.TRANSPORT_MAP: find the order with the lowest total cost
+ * 		over all orders, with the transport map dynamic program of Avidan
+ * 		and Shamir. This searches two seams for every combination of
+ * 		(horizontal seams removed, vertical seams removed) and keeps one
+ * 		picture per column of the map, so it is only practical for small
+ * 		pictures or small reductions.
+ *
+ * Seams are found with the same rules as Picture.computeSeam() and
+ * 	Picture.computeHorizontalSeam(), including how ties are broken.
+ */
+public class Retargeter
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	// Orders in which seams can be removed.
+	public static final int GREEDY = 1;
+	public static final int TRANSPORT_MAP = 2;
+
+	/** Number of columns gathered at a time when searching horizontally. */
+	private static final int TILE_SIZE = 32;
+
+	//////////////////////////////// Fields ///////////////////////////////////
+
+	/** Current width of the picture. */
+	private int width;
+
+	/** Current height of the picture. */
+	private int height;
+
+	/** Distance between the starts of two rows in every plane. */
+	private int stride;
+
+	/** Color value of each pixel, in row-major order. */
+	private int[] pixels;
+
+	/** Luminosity of each pixel, in row-major order. */
+	private int[] luminosity;
+
+	/** Energy of each pixel, in row-major order. */
+	private int[] energy;
+
+	/**
+	 * Buffers reused by every seam search: two rows of cumulative costs,
+	 * 	the parent offsets, and a tile of energy read transposed.
+	 */
+	private int[] above;
+	private int[] current;
+	private byte[] parent;
+	private int[] tile;
+
+	/** Time spent in each phase, in nanoseconds. */
+	private long energyTime;
+	private long searchTime;
+	private long removeTime;
+	private long mapTime;
+
+	/** Number of seams removed in each direction. */
+	private int verticalSeams;
+	private int horizontalSeams;
+
+	//////////////////////////// Constructors /////////////////////////////////
+
+	/**
+	 * Creates a Retargeter for a copy of the SimplePicture provided. The
+	 * 	SimplePicture itself is not changed.
+	 *
+	 * @param picture The SimplePicture to shrink.
+	 */
+	public Retargeter(SimplePicture picture) {
+		long start = System.nanoTime();
+		this.width = picture.getWidth();
+		this.height = picture.getHeight();
+		this.stride = width;
+		this.pixels = picture.getRegion(0, 0, width, height,
+				new int[width * height]);
+
+		EnergyMap map = new EnergyMap(pixels, width, height);
+		this.luminosity = map.getLuminosityData();
+		this.energy = map.getEnergyData();
+
+		int longest = Math.max(width, height);
+		this.above = new int[longest];
+		this.current = new int[longest];
+		this.parent = new byte[width * height];
+		this.tile = new int[TILE_SIZE * height];
+		this.energyTime = System.nanoTime() - start;
+	}
+
+	/**
+	 * Creates a copy of another Retargeter's picture. The copy shares the
+	 * 	other's search buffers, so the two must not search at the same time.
+	 *
+	 * @param other The Retargeter to copy.
+	 */
+	private Retargeter(Retargeter other) {
+		this.width = other.width;
+		this.height = other.height;
+		this.stride = other.width;
+		this.pixels = other.compact(other.pixels);
+		this.luminosity = other.compact(other.luminosity);
+		this.energy = other.compact(other.energy);
+		this.above = other.above;
+		this.current = other.current;
+		this.parent = other.parent;
+		this.tile = other.tile;
+	}
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * @return The current width of the picture.
+	 */
+	public int getWidth() { return width; }
+
+	/**
+	 * @return The current height of the picture.
+	 */
+	public int getHeight() { return height; }
+
+	/**
+	 * Shrinks the picture to the size provided, removing seams in the order
+	 * 	given.
+	 *
+	 * @param targetWidth The width to shrink to; at most the current width.
+	 * @param targetHeight The height to shrink to; at most the current height.
+	 * @param order Retargeter.GREEDY or Retargeter.TRANSPORT_MAP.
+	 *
+	 * @throws IllegalArgumentException If the size is out of range or the
+	 * 	order is neither of the two.
+	 */
+	public void retarget(int targetWidth, int targetHeight, int order) {
+		if (targetWidth < 1 || targetWidth > width
+				|| targetHeight < 1 || targetHeight > height)
+			throw new IllegalArgumentException("Cannot retarget a " + width
+					+ "x" + height + " picture to " + targetWidth + "x"
+					+ targetHeight);
+		if (order != GREEDY && order != TRANSPORT_MAP)
+			throw new IllegalArgumentException("Unknown seam order " + order
+					+ "; use Retargeter.GREEDY or Retargeter.TRANSPORT_MAP");
+
+		if (order == TRANSPORT_MAP)
+			retargetByTransportMap(targetWidth, targetHeight);
+		else
+			retargetGreedily(targetWidth, targetHeight);
+	}
+
+	/**
+	 * Removes whichever of the cheapest vertical and horizontal seams costs
+	 * 	less, until the picture is the size provided.
+	 */
+	private void retargetGreedily(int targetWidth, int targetHeight) {
+		int[] verticalSeam = new int[height];
+		int[] horizontalSeam = new int[width];
+		while (width > targetWidth || height > targetHeight) {
+			long start = System.nanoTime();
+			int verticalCost = width > targetWidth
+					? findSeam(true, verticalSeam) : Integer.MAX_VALUE;
+			int horizontalCost = height > targetHeight
+					? findSeam(false, horizontalSeam) : Integer.MAX_VALUE;
+			long found = System.nanoTime();
+			searchTime += found - start;
+
+			if (verticalCost <= horizontalCost)
+				removeSeam(true, verticalSeam);
+			else
+				removeSeam(false, horizontalSeam);
+			removeTime += System.nanoTime() - found;
+		}
+	}
+
+	/**
+	 * Fills in the transport map one row at a time. Entry (r, c) is the
+	 * 	lowest total cost of removing r horizontal and c vertical seams, and
+	 * 	comes either from (r - 1, c) plus a horizontal seam or from
+	 * 	(r, c - 1) plus a vertical seam. The picture reached at each entry of
+	 * 	the previous and the current row is kept, so the picture at the last
+	 * 	entry is the result.
+	 */
+	private void retargetByTransportMap(int targetWidth, int targetHeight) {
+		long start = System.nanoTime();
+		int rows = height - targetHeight;
+		int columns = width - targetWidth;
+
+		Retargeter[] previous = null;
+		long[] previousCost = null;
+		for (int r = 0; r <= rows; r++) {
+			Retargeter[] states = new Retargeter[columns + 1];
+			long[] cost = new long[columns + 1];
+			for (int c = 0; c <= columns; c++) {
+				if (r == 0 && c == 0) {
+					states[0] = new Retargeter(this);
+					continue;
+				}
+				long fromLeft = Long.MAX_VALUE;
+				long fromAbove = Long.MAX_VALUE;
+				int[] leftSeam = null;
+				int[] aboveSeam = null;
+				if (c > 0) {
+					leftSeam = new int[states[c - 1].height];
+					fromLeft = cost[c - 1] + states[c - 1].findSeam(true, leftSeam);
+				}
+				if (r > 0) {
+					aboveSeam = new int[previous[c].width];
+					fromAbove = previousCost[c] + previous[c].findSeam(false, aboveSeam);
+				}
+
+				// Prefer the vertical seam when both are equally cheap.
+				Retargeter state;
+				if (fromLeft <= fromAbove) {
+					state = new Retargeter(states[c - 1]);
+					state.removeSeam(true, leftSeam);
+					state.verticalSeams = states[c - 1].verticalSeams + 1;
+					state.horizontalSeams = states[c - 1].horizontalSeams;
+					cost[c] = fromLeft;
+				} else {
+					state = new Retargeter(previous[c]);
+					state.removeSeam(false, aboveSeam);
+					state.verticalSeams = previous[c].verticalSeams;
+					state.horizontalSeams = previous[c].horizontalSeams + 1;
+					cost[c] = fromAbove;
+				}
+				states[c] = state;
+				// The entry above is not needed once this one is done.
+				if (previous != null)
+					previous[c] = null;
+			}
+			previous = states;
+			previousCost = cost;
+		}
+
+		Retargeter result = previous[columns];
+		this.width = result.width;
+		this.height = result.height;
+		this.stride = result.stride;
+		this.pixels = result.pixels;
+		this.luminosity = result.luminosity;
+		this.energy = result.energy;
+		this.verticalSeams = result.verticalSeams;
+		this.horizontalSeams = result.horizontalSeams;
+		this.mapTime = System.nanoTime() - start;
+	}
+
+	/**
+	 * Finds the lowest-cost seam of the picture as it is now.
+	 *
+	 * @param vertical True for a vertical seam, false for a horizontal one.
+	 * @param seam The array to store the seam in: the column in each row for
+	 * 	a vertical seam, or the row in each column for a horizontal one.
+	 *
+	 * @return The total energy of the seam.
+	 */
+	private int findSeam(boolean vertical, int[] seam) {
+		int lines = vertical ? height : width;
+		int length = vertical ? width : height;
+
+		if (vertical) {
+			System.arraycopy(energy, 0, above, 0, width);
+			for (int y = 1; y < height; y++) {
+				SeamCarver.relaxRange(energy, y * stride, above, 0, current, 0,
+						parent, y * width, 0, width - 1, width);
+				swapRows();
+			}
+		} else {
+			// Read the energy transposed, TILE_SIZE columns at a time.
+			for (int tileX = 0; tileX < width; tileX += TILE_SIZE) {
+				int tileWidth = Math.min(TILE_SIZE, width - tileX);
+				for (int y = 0; y < height; y++) {
+					int from = y * stride + tileX;
+					for (int t = 0; t < tileWidth; t++)
+						tile[t * height + y] = energy[from + t];
+				}
+				for (int t = 0; t < tileWidth; t++) {
+					int x = tileX + t;
+					if (x == 0) {
+						System.arraycopy(tile, 0, above, 0, height);
+						continue;
+					}
+					SeamCarver.relaxRange(tile, t * height, above, 0, current, 0,
+							parent, x * height, 0, height - 1, height);
+					swapRows();
+				}
+			}
+		}
+
+		int[] found = SeamCarver.traceSeam(above, 0, parent, length, length, lines);
+		System.arraycopy(found, 0, seam, 0, lines);
+		return above[found[lines - 1]];
+	}
+
+	/**
+	 * Swaps the two rows of cumulative costs.
+	 */
+	private void swapRows() {
+		int[] swap = above;
+		above = current;
+		current = swap;
+	}
+
+	/**
+	 * Removes a seam from the picture and recomputes the energy next to it.
+	 *
+	 * @param vertical True for a vertical seam, false for a horizontal one.
+	 * @param seam The seam, as filled in by findSeam.
+	 */
+	private void removeSeam(boolean vertical, int[] seam) {
+		if (vertical) {
+			// Shift everything right of the seam one to the left.
+			for (int y = 0; y < height; y++) {
+				int from = y * stride + seam[y] + 1;
+				int length = width - seam[y] - 1;
+				System.arraycopy(pixels, from, pixels, from - 1, length);
+				System.arraycopy(luminosity, from, luminosity, from - 1, length);
+				System.arraycopy(energy, from, energy, from - 1, length);
+			}
+			width--;
+			verticalSeams++;
+		} else {
+			// Shift everything below the seam one up, a row at a time.
+			for (int y = 0; y < height - 1; y++) {
+				int offset = y * stride;
+				for (int x = 0; x < width; x++) {
+					if (y >= seam[x]) {
+						pixels[offset + x] = pixels[offset + stride + x];
+						luminosity[offset + x] = luminosity[offset + stride + x];
+						energy[offset + x] = energy[offset + stride + x];
+					}
+				}
+			}
+			height--;
+			horizontalSeams++;
+		}
+		updateEnergy(vertical, seam);
+	}
+
+	/**
+	 * Recomputes the energy of the pixels whose neighbors changed when a
+	 * 	seam was removed. Along each row (or column, for a horizontal seam)
+	 * 	those are the pixel just before the seam, the pixel that moved to the
+	 * 	end of the line, and the pixels between the seam in this line and the
+	 * 	seam in the line it is compared with.
+	 */
+	private void updateEnergy(boolean vertical, int[] seam) {
+		int lines = vertical ? height : width;
+		int length = vertical ? width : height;
+		if (length == 0)
+			return;
+
+		for (int i = 0; i < lines; i++) {
+			int neighbor = i < lines - 1 ? i + 1 : i - 1;
+			int low = seam[i] - 1;
+			int high = seam[i] < length - 1 ? seam[i] - 1 : seam[i];
+			if (neighbor >= 0) {
+				low = Math.min(low, Math.min(seam[i], seam[neighbor]));
+				high = Math.max(high, Math.max(seam[i], seam[neighbor]) - 1);
+			}
+			low = Math.max(low, 0);
+			high = Math.min(high, length - 1);
+
+			for (int j = low; j <= high; j++) {
+				if (vertical)
+					energy[i * stride + j] = energyAt(j, i);
+				else
+					energy[j * stride + i] = energyAt(i, j);
+			}
+		}
+	}
+
+	/**
+	 * @return The energy of the pixel at (x, y), by the same rule as
+	 * 	EnergyMap.
+	 */
+	private int energyAt(int x, int y) {
+		int offset = y * stride;
+		int here = luminosity[offset + x];
+		int side = x < width - 1 ? x + 1 : x - 1;
+		int below = y < height - 1 ? y + 1 : y - 1;
+		int horizontal = side < 0 ? 0
+				: Math.abs(luminosity[offset + side] - here);
+		int vertical = below < 0 ? 0
+				: Math.abs(luminosity[below * stride + x] - here);
+		return horizontal + vertical;
+	}
+
+	/**
+	 * @return The current width by height entries of a plane, in row-major
+	 * 	order with a stride of the current width.
+	 */
+	private int[] compact(int[] plane) {
+		int[] result = new int[width * height];
+		for (int y = 0; y < height; y++)
+			System.arraycopy(plane, y * stride, result, y * width, width);
+		return result;
+	}
+
+	/**
+	 * @return A new Picture holding the pixels of the picture as it is now.
+	 */
+	public Picture toPicture() {
+		return new Picture(width, height, compact(pixels));
+	}
+
+	/**
+	 * Prints how long each phase of the retargeting took and how many seams
+	 * 	were removed in each direction.
+	 */
+	public void printTimings() {
+		System.out.println("Retarget to " + width + "x" + height + ": "
+				+ verticalSeams + " vertical and " + horizontalSeams
+				+ " horizontal seams");
+		System.out.println("Energy:\t\t" + energyTime / 1000000.0 + " ms");
+		System.out.println("Seam search:\t" + searchTime / 1000000.0 + " ms");
+		System.out.println("Seam removal:\t" + removeTime / 1000000.0 + " ms");
+		System.out.println("Transport map:\t" + mapTime / 1000000.0 + " ms");
+	}
+
+} // End of Retargeter class
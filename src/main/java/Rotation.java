@@ -0,0 +1,149 @@
+/**
+ * Kernels that rearrange packed pixel planes stored in row-major order.
+ * 	The transpose and the quarter turns work on square tiles of TILE_SIZE
+ * 	by TILE_SIZE pixels so that both the rows read and the rows written
+ * 	stay in the cache while a tile is copied. A half turn reads and writes
+ * 	whole rows, so it needs no tiles.
+ *
+ * The turns split the rows of the source into bands with RowBands, so
+ * 	large planes are turned on several threads.
+ */
+public class Rotation
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	/** Width and height of the tiles the kernels copy at a time. */
+	private static final int TILE_SIZE = 32;
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Transposes a plane: the value at (x, y) in source ends up at (y, x)
+	 * 	in target, so target is height wide and width tall.
+	 *
+	 * @param source The plane to transpose, in row-major order.
+	 * @param width The width of source.
+	 * @param height The height of source.
+	 * @param target The array to store the transposed plane in; it must
+	 * 	hold at least width * height values.
+	 *
+	 * @return target.
+	 */
+	public static int[] transpose(int[] source, int width, int height,
+			int[] target) {
+		copyTiles(source, width, 0, height, target, 0, height, 1);
+		return target;
+	}
+
+	/**
+	 * Turns a plane a quarter turn clockwise: the value at (x, y) in source
+	 * 	ends up at (height - 1 - y, x) in target, so target is height wide
+	 * 	and width tall.
+	 *
+	 * @param source The plane to turn, in row-major order.
+	 * @param width The width of source.
+	 * @param height The height of source.
+	 * @param target The array to store the turned plane in; it must hold at
+	 * 	least width * height values.
+	 *
+	 * @return target.
+	 */
+	public static int[] rotateRight(int[] source, int width, int height,
+			int[] target) {
+		return turn(source, width, height, target, height - 1, height, -1);
+	}
+
+	/**
+	 * Turns a plane a quarter turn counterclockwise: the value at (x, y) in
+	 * 	source ends up at (y, width - 1 - x) in target, so target is height
+	 * 	wide and width tall.
+	 *
+	 * @param source The plane to turn, in row-major order.
+	 * @param width The width of source.
+	 * @param height The height of source.
+	 * @param target The array to store the turned plane in; it must hold at
+	 * 	least width * height values.
+	 *
+	 * @return target.
+	 */
+	public static int[] rotateLeft(int[] source, int width, int height,
+			int[] target) {
+		return turn(source, width, height, target, (width - 1) * height,
+				-height, 1);
+	}
+
+	/**
+	 * Turns a plane a half turn: the value at (x, y) in source ends up at
+	 * 	(width - 1 - x, height - 1 - y) in target, which is the same size.
+	 *
+	 * @param source The plane to turn, in row-major order.
+	 * @param width The width of source.
+	 * @param height The height of source.
+	 * @param target The array to store the turned plane in; it must hold at
+	 * 	least width * height values.
+	 *
+	 * @return target.
+	 */
+	public static int[] rotate180(final int[] source, final int width,
+			int height, final int[] target) {
+		final int last = width * height - 1;
+		// Each row is written backwards into its mirror row.
+		RowBands.forEach(width, height, new RowBands.Band() {
+			public void run(int top, int bottom) {
+				for (int i = top * width; i < bottom * width; i++)
+					target[last - i] = source[i];
+			}
+		});
+		return target;
+	}
+
+	/**
+	 * Copies the tiles of a plane over bands of rows with RowBands.
+	 *
+	 * @see #copyTiles(int[], int, int, int, int[], int, int, int)
+	 */
+	private static int[] turn(final int[] source, final int width, int height,
+			final int[] target, final int start, final int stepX,
+			final int stepY) {
+		RowBands.forEach(width, height, new RowBands.Band() {
+			public void run(int top, int bottom) {
+				copyTiles(source, width, top, bottom, target, start, stepX, stepY);
+			}
+		});
+		return target;
+	}
+
+	/**
+	 * Copies the rows from top to bottom of a plane a tile at a time, the
+	 * 	value at (x, y) in source going to start + x * stepX + y * stepY in
+	 * 	target.
+	 *
+	 * @param source The plane to copy, in row-major order.
+	 * @param width The width of source.
+	 * @param top The first row to copy.
+	 * @param bottom One past the last row to copy.
+	 * @param target The array to copy into.
+	 * @param start The index in target of the value at (0, 0).
+	 * @param stepX How far apart in target values next to each other in a
+	 * 	row end up.
+	 * @param stepY How far apart in target values next to each other in a
+	 * 	column end up.
+	 */
+	private static void copyTiles(int[] source, int width, int top, int bottom,
+			int[] target, int start, int stepX, int stepY) {
+		for (int tileY = top; tileY < bottom; tileY += TILE_SIZE) {
+			int endY = Math.min(tileY + TILE_SIZE, bottom);
+			for (int tileX = 0; tileX < width; tileX += TILE_SIZE) {
+				int endX = Math.min(tileX + TILE_SIZE, width);
+				for (int y = tileY; y < endY; y++) {
+					int from = y * width;
+					int to = start + tileX * stepX + y * stepY;
+					for (int x = tileX; x < endX; x++, to += stepX)
+						target[to] = source[from + x];
+				}
+			}
+		}
+	}
+
+} // End of Rotation class
@@ -0,0 +1,186 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a per-pixel filter over horizontal bands of rows, in parallel on a
+ * 	ForkJoinPool. Each band is a run of whole rows, so a band covers one
+ * 	contiguous range of a row-major raster and no two bands write the same
+ * 	pixel. Filters whose result for a pixel depends only on the source
+ * 	picture give exactly the same result however the rows are split.
+ *
+ * Pictures with fewer pixels than the parallel threshold are filtered on
+ * 	the calling thread in a single band, and so is every picture when the
+ * 	pool has only one thread.
+ */
+public class RowBands
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	/** Fewest rows given to one parallel task. */
+	private static final int MIN_BAND_HEIGHT = 8;
+
+	/** Number of bands made for each thread, so uneven bands even out. */
+	private static final int BANDS_PER_THREAD = 4;
+
+	/**
+	 * Pool the bands are run in. Volatile, like parallelThreshold, so a new
+	 * 	setting is seen by filters started on any thread.
+	 */
+	private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	/** Pictures with fewer pixels than this are always filtered sequentially. */
+	private static volatile int parallelThreshold = 1 << 18;
+
+	/**
+	 * The pools made by setParallelism, by number of threads, so asking for
+	 * 	the same number again reuses a pool instead of starting another.
+	 */
+	private static final Map<Integer, ForkJoinPool> POOLS = new HashMap<Integer, ForkJoinPool>();
+
+	/**
+	 * A filter applied to a band of rows.
+	 */
+	public interface Band
+	{
+		/**
+		 * Filters the rows from top to bottom.
+		 *
+		 * @param top The first row to filter.
+		 * @param bottom One past the last row to filter.
+		 */
+		public void run(int top, int bottom);
+	}
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * Runs the filter over every row of a picture, splitting the rows into
+	 * 	bands that are run in parallel if the picture is large enough.
+	 * 	Returns once every band is done.
+	 *
+	 * @param width The width of the picture.
+	 * @param height The height of the picture.
+	 * @param band The filter to run.
+	 */
+	public static void forEach(int width, int height, Band band) {
+		// Read the pool once, so the bands are counted for the pool they run in.
+		ForkJoinPool current = pool;
+		int bands = bandCount(width, height, current);
+		if (bands < 2) {
+			band.run(0, height);
+			return;
+		}
+		current.invoke(new BandTask(band, 0, height, (height + bands - 1) / bands));
+	}
+
+	/**
+	 * @param width The width of a picture.
+	 * @param height The height of a picture.
+	 *
+	 * @return The number of bands the rows of the picture are split into; 1
+	 * 	if it is filtered sequentially.
+	 */
+	static int bandCount(int width, int height) {
+		return bandCount(width, height, pool);
+	}
+
+	/**
+	 * @return The number of bands the rows of a picture are split into for
+	 * 	the pool provided; 1 if the picture is small or the pool has only
+	 * 	one thread, so the caller filters it on its own thread.
+	 */
+	private static int bandCount(int width, int height, ForkJoinPool current) {
+		if ((long) width * height < parallelThreshold || current.getParallelism() < 2)
+			return 1;
+		return Math.max(1, Math.min(current.getParallelism() * BANDS_PER_THREAD,
+				height / MIN_BAND_HEIGHT));
+	}
+
+	/**
+	 * @return The pool the bands are run in.
+	 */
+	static ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Sets the pool the bands are run in, and so how many threads are used;
+	 * 	with a pool of one thread every picture is filtered on the calling
+	 * 	thread.
+	 *
+	 * @param newPool The pool to use.
+	 */
+	public static void setPool(ForkJoinPool newPool) {
+		pool = newPool;
+	}
+
+	/**
+	 * Sets the number of threads the bands are run on; with 1 every
+	 * 	picture is filtered sequentially on the calling thread. A pool of that size is made the first time
+	 * 	the size is asked for and kept for later calls, so calling this
+	 * 	often does not leave pools behind. Their threads stop on their own
+	 * 	once they have been idle for a while.
+	 *
+	 * @param parallelism The number of threads to use, at least 1.
+	 */
+	public static synchronized void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Cannot run on " + parallelism
+					+ " threads");
+		if (parallelism == ForkJoinPool.commonPool().getParallelism()) {
+			pool = ForkJoinPool.commonPool();
+			return;
+		}
+		ForkJoinPool sized = POOLS.get(parallelism);
+		if (sized == null) {
+			sized = new ForkJoinPool(parallelism);
+			POOLS.put(parallelism, sized);
+		}
+		pool = sized;
+	}
+
+	/**
+	 * Sets the number of pixels below which pictures are always filtered
+	 * 	sequentially.
+	 *
+	 * @param pixels The smallest picture, in pixels, to filter in parallel.
+	 */
+	public static void setParallelThreshold(int pixels) {
+		parallelThreshold = pixels;
+	}
+
+	/**
+	 * Splits its rows in half until they are no taller than one band, then
+	 * 	runs the filter.
+	 */
+	private static class BandTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 0;
+
+		private final Band band;
+		private final int top;
+		private final int bottom;
+		private final int bandHeight;
+
+		BandTask(Band band, int top, int bottom, int bandHeight) {
+			this.band = band;
+			this.top = top;
+			this.bottom = bottom;
+			this.bandHeight = bandHeight;
+		}
+
+		protected void compute() {
+			if (bottom - top <= bandHeight) {
+				band.run(top, bottom);
+				return;
+			}
+			int middle = top + (bottom - top) / 2;
+			invokeAll(new BandTask(band, top, middle, bandHeight),
+					new BandTask(band, middle, bottom, bandHeight));
+		}
+	}
+
+} // End of RowBands class
@@ -0,0 +1,876 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Removes vertical seams from a picture one after another, keeping the
+ * 	pixels, luminosity, energy and cumulative seam cost of the picture
+ * 	between seams. After a seam is removed only the entries next to it are
+ * 	recomputed, so each seam after the first costs about as much as the
+ * 	height of the picture rather than its area.
+ *
+ * All planes are stored in row-major order with a fixed stride equal to
+ * 	the original width; row y holds the current width's worth of entries
+ * 	starting at y * stride. Removing a seam shifts the rest of each row
+ * 	left by one.
+ *
+ * The seams found are exactly those that repeated calls to
+ * 	Picture.computeSeam() and Picture.carve() would find, including the
+ * 	tie-breaking order (top, then top-left, then top-right).
+ */
+public class SeamCarver
+{
+
+	/////////////////////////// Static Variables //////////////////////////////
+
+	/** Number of rows each parallel task computes between synchronizations. */
+	private static final int BAND_HEIGHT = 32;
+
+	/** Narrowest range of columns given to one parallel task. */
+	private static final int MIN_CHUNK_WIDTH = 256;
+
+	/** Offsets to the pixels above, in the order ties are broken. */
+	private static final int[] TIE_ORDER = { 0, -1, 1 };
+
+	//////////////////////////////// Fields ///////////////////////////////////
+
+	/** Current width of the picture. */
+	private int width;
+
+	/** Height of the picture. */
+	private int height;
+
+	/** Distance between the starts of two rows in every plane. */
+	private int stride;
+
+	/** Color value of each pixel. */
+	private int[] pixels;
+
+	/** Luminosity of each pixel. */
+	private int[] luminosity;
+
+	/** Energy of each pixel. */
+	private int[] energy;
+
+	/** Cost of the cheapest seam from the top row down to each pixel. */
+	private int[] cost;
+
+	/**
+	 * Column of the pixel above each pixel on its cheapest seam, relative
+	 * 	to the pixel itself: -1, 0 or 1.
+	 */
+	private byte[] parent;
+
+	//////////////////////////// Constructors /////////////////////////////////
+
+	/**
+	 * Creates a SeamCarver for a copy of the SimplePicture provided. The
+	 * 	SimplePicture itself is not changed.
+	 *
+	 * @param picture The SimplePicture to carve.
+	 */
+	public SeamCarver(SimplePicture picture) {
+		this(picture.getRegion(0, 0, picture.getWidth(), picture.getHeight(),
+				new int[picture.getWidth() * picture.getHeight()]),
+				picture.getWidth(), picture.getHeight());
+	}
+
+	/**
+	 * Creates a SeamCarver for a plane of color values. The array provided
+	 * 	becomes the carver's own and is changed as seams are removed.
+	 *
+	 * @param pixels The color values, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 */
+	public SeamCarver(int[] pixels, int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.stride = width;
+		this.pixels = pixels;
+
+		EnergyMap map = new EnergyMap(pixels, width, height);
+		this.luminosity = map.getLuminosityData();
+		this.energy = map.getEnergyData();
+
+		this.cost = new int[width * height];
+		this.parent = new byte[width * height];
+		for (int y = 0; y < height; y++)
+			relaxRow(y, 0, width - 1);
+	}
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * @return The current width of the picture.
+	 */
+	public int getWidth() { return width; }
+
+	/**
+	 * @return The height of the picture.
+	 */
+	public int getHeight() { return height; }
+
+	/**
+	 * Finds the lowest-cost vertical seam of the picture as it is now.
+	 *
+	 * @return The x-coordinate of the seam in each row, from the top row
+	 * 	to the bottom row.
+	 */
+	public int[] findSeam() {
+		return traceSeam(cost, (height - 1) * stride, parent, stride, width,
+				height);
+	}
+
+	/**
+	 * Finds the lowest-cost vertical seam of an energy plane without
+	 * 	keeping the cumulative cost of every pixel. Only two rows of costs
+	 * 	are held at a time, plus one byte per pixel for the parents.
+	 *
+	 * @param energy The energy of each pixel, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 *
+	 * @return The x-coordinate of the seam in each row, from the top row
+	 * 	to the bottom row.
+	 */
+	public static int[] findSeam(int[] energy, int width, int height) {
+		byte[] parent = new byte[width * height];
+		int[] above = new int[width];
+		int[] current = new int[width];
+
+		System.arraycopy(energy, 0, above, 0, width);
+		for (int y = 1; y < height; y++) {
+			relaxRange(energy, y * width, above, 0, current, 0,
+					parent, y * width, 0, width - 1, width);
+			int[] swap = above;
+			above = current;
+			current = swap;
+		}
+		return traceSeam(above, 0, parent, width, width, height);
+	}
+
+	/**
+	 * Finds the lowest-cost vertical seam of an energy plane using the
+	 * 	threads of the pool provided. The columns are split into one chunk
+	 * 	per thread. Each task computes BAND_HEIGHT rows of its chunk at a
+	 * 	time, starting from a slightly wider range of columns that narrows
+	 * 	by one on each side per row, so that it never needs costs from
+	 * 	another chunk until the band is done. The seam is the same as the
+	 * 	one found sequentially.
+	 *
+	 * This search is experimental: nothing calls it on its own, and it has
+	 * 	only been measured on one core, where it was slower than the
+	 * 	sequential search. Call it directly to try it with a pool of
+	 * 	several threads.
+	 *
+	 * @param energy The energy of each pixel, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 * @param pool The pool to run the tasks in.
+	 *
+	 * @return The x-coordinate of the seam in each row, from the top row
+	 * 	to the bottom row.
+	 */
+	public static int[] findSeam(int[] energy, int width, int height,
+			ForkJoinPool pool) {
+		byte[] parent = new byte[width * height];
+		int[] above = new int[width];
+		int[] next = new int[width];
+		int chunks = Math.max(1, Math.min(pool.getParallelism(),
+				width / MIN_CHUNK_WIDTH));
+
+		System.arraycopy(energy, 0, above, 0, width);
+		for (int top = 1; top < height; top += BAND_HEIGHT) {
+			int bottom = Math.min(height, top + BAND_HEIGHT);
+			List<BandTask> tasks = new ArrayList<BandTask>(chunks);
+			for (int i = 0; i < chunks; i++) {
+				tasks.add(new BandTask(energy, width, top, bottom, above, next,
+						parent, i * width / chunks, (i + 1) * width / chunks - 1));
+			}
+			pool.invoke(new BandGroup(tasks));
+			int[] swap = above;
+			above = next;
+			next = swap;
+		}
+		return traceSeam(above, 0, parent, width, width, height);
+	}
+
+	/**
+	 * Finds a low-cost vertical seam from coarse to fine. The energy is
+	 * 	summed over 2 by 2 blocks levels times, the exact seam is found on
+	 * 	the smallest plane, and then at each finer level the seam is found
+	 * 	again among only the columns within bandWidth of the coarser seam.
+	 * 	This is an approximation: the seam can miss a cheaper path that
+	 * 	leaves the band.
+	 *
+	 * @param energy The energy of each pixel, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 * @param levels How many times to halve the plane; 0 finds the exact seam.
+	 * @param bandWidth How many columns to search on each side of the
+	 * 	coarser seam, at least 1.
+	 *
+	 * @return The x-coordinate of the seam in each row, from the top row
+	 * 	to the bottom row.
+	 */
+	public static int[] findSeamCoarseToFine(int[] energy, int width,
+			int height, int levels, int bandWidth) {
+		if (levels <= 0 || width < 2 || height < 2)
+			return findSeam(energy, width, height);
+
+		int coarseWidth = (width + 1) / 2;
+		int coarseHeight = (height + 1) / 2;
+		int[] coarse = downsample(energy, width, height, new int[coarseWidth * coarseHeight]);
+		int[] coarseSeam = findSeamCoarseToFine(coarse, coarseWidth,
+				coarseHeight, levels - 1, bandWidth);
+		// A band as wide as the plane already covers every column, and keeps
+		// the band's sizes from overflowing.
+		return findSeamInBand(energy, width, height, coarseSeam,
+				Math.min(Math.max(bandWidth, 1), width));
+	}
+
+	/**
+	 * Sums the energy over 2 by 2 blocks. A block past the right or bottom
+	 * 	edge sums only the pixels that exist.
+	 *
+	 * @param energy The energy of each pixel, in row-major order.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 * @param target The array to store the (width + 1) / 2 by
+	 * 	(height + 1) / 2 sums in, in row-major order.
+	 *
+	 * @return target.
+	 */
+	static int[] downsample(int[] energy, int width, int height, int[] target) {
+		int coarseWidth = (width + 1) / 2;
+		int coarseHeight = (height + 1) / 2;
+		int pairs = width / 2;
+		for (int cy = 0; cy < coarseHeight; cy++) {
+			int top = 2 * cy * width;
+			// The last row of an odd height pairs with itself, counted once.
+			int bottom = 2 * cy + 1 < height ? top + width : -1;
+			int coarseOffset = cy * coarseWidth;
+			for (int cx = 0; cx < pairs; cx++) {
+				int x = 2 * cx;
+				int sum = energy[top + x] + energy[top + x + 1];
+				if (bottom >= 0)
+					sum += energy[bottom + x] + energy[bottom + x + 1];
+				target[coarseOffset + cx] = sum;
+			}
+			if (pairs < coarseWidth) {
+				int x = width - 1;
+				target[coarseOffset + pairs] = energy[top + x]
+						+ (bottom >= 0 ? energy[bottom + x] : 0);
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Finds the lowest-cost vertical seam that stays within bandWidth
+	 * 	columns of a seam found on the plane at half the size. Row y is
+	 * 	searched from column 2c - bandWidth to 2c + 1 + bandWidth, where c is
+	 * 	the coarse seam in row y / 2. Ties are broken as in relaxRange.
+	 */
+	private static int[] findSeamInBand(int[] energy, int width, int height,
+			int[] coarseSeam, int bandWidth) {
+		// Costs outside the band; small enough that adding energy never overflows.
+		final int outside = Integer.MAX_VALUE / 4;
+		// Parents are only kept for the band: row y starts at column rowLow[y].
+		int bandStride = 2 * bandWidth + 2;
+		byte[] parent = new byte[bandStride * height];
+		int[] rowLow = new int[height];
+		int[] above = new int[width];
+		int[] current = new int[width];
+		Arrays.fill(above, outside);
+		Arrays.fill(current, outside);
+
+		int low = Math.max(2 * coarseSeam[0] - bandWidth, 0);
+		int high = Math.min(2 * coarseSeam[0] + 1 + bandWidth, width - 1);
+		System.arraycopy(energy, low, above, low, high - low + 1);
+		rowLow[0] = low;
+		int aboveLow = low;
+		int aboveHigh = high;
+		int currentLow = 0;
+		int currentHigh = -1;
+		for (int y = 1; y < height; y++) {
+			int column = 2 * coarseSeam[Math.min(y >> 1, coarseSeam.length - 1)];
+			low = Math.max(column - bandWidth, 0);
+			high = Math.min(column + 1 + bandWidth, width - 1);
+			rowLow[y] = low;
+			// Clear what this row array held two rows ago.
+			for (int x = currentLow; x <= currentHigh; x++)
+				current[x] = outside;
+			relaxRange(energy, y * width, above, 0, current, 0, parent,
+					y * bandStride - low, low, high, width);
+			currentLow = aboveLow;
+			currentHigh = aboveHigh;
+			aboveLow = low;
+			aboveHigh = high;
+			int[] swap = above;
+			above = current;
+			current = swap;
+		}
+
+		// Find the first smallest cost on the bottom row, then work back up.
+		int column = aboveLow;
+		for (int x = aboveLow + 1; x <= aboveHigh; x++) {
+			if (above[x] < above[column])
+				column = x;
+		}
+		int[] seam = new int[height];
+		seam[height - 1] = column;
+		for (int y = height - 1; y > 0; y--) {
+			column += parent[y * bandStride + column - rowLow[y]];
+			seam[y - 1] = column;
+		}
+		return seam;
+	}
+
+	/**
+	 * Finds the lowest-cost vertical seam under the energy function
+	 * 	provided. The energy is written into the caller's buffer, and when
+	 * 	the function charges for steps between rows they are computed one
+	 * 	row at a time into three reused rows.
+	 *
+	 * @param luminosity The luminosity of each pixel, in row-major order.
+	 * @param energy The array to store the energy of each pixel in.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 * @param function The energy function to weigh the pixels with.
+	 *
+	 * @return The x-coordinate of the seam in each row, from the top row
+	 * 	to the bottom row.
+	 */
+	public static int[] findSeam(int[] luminosity, int[] energy, int width,
+			int height, EnergyFunction function) {
+		function.computeEnergy(luminosity, energy, width, height);
+		if (!function.hasStepCosts())
+			return findSeam(energy, width, height);
+
+		byte[] parent = new byte[width * height];
+		int[] above = new int[width];
+		int[] current = new int[width];
+		int[] left = new int[width];
+		int[] up = new int[width];
+		int[] right = new int[width];
+
+		function.computeStepCosts(luminosity, width, 0, left, up, right);
+		for (int x = 0; x < width; x++)
+			above[x] = energy[x] + up[x];
+		for (int y = 1; y < height; y++) {
+			function.computeStepCosts(luminosity, width, y, left, up, right);
+			relaxSteps(energy, y * width, above, current, parent, y * width,
+					left, up, right, width);
+			int[] swap = above;
+			above = current;
+			current = swap;
+		}
+		return traceSeam(above, 0, parent, width, width, height);
+	}
+
+	/**
+	 * Removes numSeams seams one after another, weighing the pixels with
+	 * 	the energy function provided. The energy and seam are recomputed in
+	 * 	full for each seam, since a function may depend on pixels anywhere
+	 * 	along the new edges; the pixels and luminosity are compacted in
+	 * 	place, so no buffers are allocated per seam.
+	 *
+	 * @param pixels The color values, in row-major order. This array is
+	 * 	changed: it ends up holding the carved plane.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 * @param numSeams The number of seams to remove, less than width.
+	 * @param function The energy function to weigh the pixels with.
+	 *
+	 * @return pixels, holding the carved plane of width - numSeams by
+	 * 	height values in row-major order.
+	 */
+	public static int[] carve(int[] pixels, int width, int height,
+			int numSeams, EnergyFunction function) {
+		int[] luminosity = new int[width * height];
+		int[] energy = new int[width * height];
+		EnergyMap.computeLuminosity(pixels, luminosity, width * height);
+
+		for (int i = 0; i < numSeams; i++) {
+			int[] seam = findSeam(luminosity, energy, width, height, function);
+			// Row y moves left by y cells plus one past its seam.
+			for (int y = 0; y < height; y++) {
+				int from = y * width;
+				int to = y * (width - 1);
+				System.arraycopy(pixels, from, pixels, to, seam[y]);
+				System.arraycopy(pixels, from + seam[y] + 1, pixels,
+						to + seam[y], width - seam[y] - 1);
+				System.arraycopy(luminosity, from, luminosity, to, seam[y]);
+				System.arraycopy(luminosity, from + seam[y] + 1, luminosity,
+						to + seam[y], width - seam[y] - 1);
+			}
+			width--;
+		}
+		return pixels;
+	}
+
+	/**
+	 * Removes numSeams seams, taking up to batchSize of them from each pass
+	 * 	of the dynamic program. After each pass the bottom-row costs are
+	 * 	tried from cheapest to dearest. Each is traced back up, stepping to
+	 * 	the cheapest free pixel above when its parent already belongs to a
+	 * 	seam kept in the pass, and kept if it reaches the top row. All the
+	 * 	seams kept are then removed in one compaction of each row. This is an
+	 * 	approximation of removing the seams one at a time, since the later
+	 * 	seams of a batch do not see the energy left by the earlier ones; with
+	 * 	a batchSize of 1 the result is the same as Picture.carveMany.
+	 *
+	 * @param pixels The color values, in row-major order. This array is
+	 * 	changed: it ends up holding the carved plane.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 * @param numSeams The number of seams to remove, less than width.
+	 * @param batchSize The most seams to take from one pass, at least 1.
+	 *
+	 * @return pixels, holding the carved plane of width - numSeams by
+	 * 	height values in row-major order.
+	 */
+	public static int[] carveInBatches(int[] pixels, int width, int height,
+			int numSeams, int batchSize) {
+		int[] luminosity = new int[width * height];
+		int[] energy = new int[width * height];
+		int[] cost = new int[width * height];
+		byte[] parent = new byte[width * height];
+		// Number of the pass whose seam took each pixel, counting from 1.
+		// Marks left by earlier passes never match a later pass number, so
+		// they need no clearing when the rows are compacted.
+		int[] taken = new int[width * height];
+		long[] bottom = new long[width];
+		int[] seam = new int[height];
+		EnergyMap.computeLuminosity(pixels, luminosity, width * height);
+
+		int remaining = numSeams;
+		for (int pass = 1; remaining > 0; pass++) {
+			EnergyMap.computeEnergy(luminosity, energy, width, height);
+			System.arraycopy(energy, 0, cost, 0, width);
+			for (int y = 1; y < height; y++)
+				relaxRange(energy, y * width, cost, (y - 1) * width, cost,
+						y * width, parent, y * width, 0, width - 1, width);
+
+			// Cheapest first, and leftmost first among equal costs.
+			int last = (height - 1) * width;
+			for (int x = 0; x < width; x++)
+				bottom[x] = ((long) cost[last + x] << 32) | x;
+			Arrays.sort(bottom, 0, width);
+
+			int wanted = Math.min(batchSize, remaining);
+			int kept = 0;
+			for (int i = 0; i < width && kept < wanted; i++) {
+				int column = (int) bottom[i];
+				if (taken[last + column] == pass)
+					continue;
+				seam[height - 1] = column;
+				for (int y = height - 1; y > 0 && column >= 0; y--) {
+					column = freeParent(cost, parent, taken, pass, width, y, column);
+					seam[y - 1] = column;
+				}
+				if (column < 0)
+					continue;
+				for (int y = 0; y < height; y++)
+					taken[y * width + seam[y]] = pass;
+				kept++;
+			}
+
+			// Compact each row past the pixels taken in this pass.
+			int newWidth = width - kept;
+			for (int y = 0; y < height; y++) {
+				int from = y * width;
+				int to = y * newWidth;
+				for (int x = 0; x < width; x++) {
+					if (taken[from + x] != pass) {
+						pixels[to] = pixels[from + x];
+						luminosity[to] = luminosity[from + x];
+						to++;
+					}
+				}
+			}
+			width = newWidth;
+			remaining -= kept;
+		}
+		return pixels;
+	}
+
+	/**
+	 * Picks the pixel a seam in a batch steps to in the row above. This is
+	 * 	the pixel's parent if no seam in the pass has taken it, or else the
+	 * 	cheapest free pixel of the three above, with ties broken as in
+	 * 	relaxRange.
+	 *
+	 * @return The column in row y - 1, or -1 if all three are taken.
+	 */
+	private static int freeParent(int[] cost, byte[] parent, int[] taken,
+			int pass, int width, int y, int column) {
+		int above = (y - 1) * width;
+		int best = column + parent[y * width + column];
+		if (taken[above + best] != pass)
+			return best;
+
+		best = -1;
+		for (int step : TIE_ORDER) {
+			int x = column + step;
+			if (x < 0 || x >= width || taken[above + x] == pass)
+				continue;
+			if (best < 0 || cost[above + x] < cost[above + best])
+				best = x;
+		}
+		return best;
+	}
+
+	/**
+	 * Picks the first smallest cost on the bottom row and follows the
+	 * 	parents back up to the top row.
+	 *
+	 * @param bottomCost Array holding the cumulative costs of the bottom row.
+	 * @param bottomOffset Index of the first bottom-row cost in bottomCost.
+	 * @param parent Parent offsets, in row-major order.
+	 * @param stride Distance between the starts of two rows in parent.
+	 * @param width The width of the plane.
+	 * @param height The height of the plane.
+	 *
+	 * @return The x-coordinate of the seam in each row.
+	 */
+	static int[] traceSeam(int[] bottomCost, int bottomOffset,
+			byte[] parent, int stride, int width, int height) {
+		// Find the first smallest cost on the bottom row.
+		int column = 0;
+		for (int x = 1; x < width; x++) {
+			if (bottomCost[bottomOffset + x] < bottomCost[bottomOffset + column])
+				column = x;
+		}
+
+		// Work back up to the top row.
+		int[] seam = new int[height];
+		seam[height - 1] = column;
+		for (int y = height - 1; y > 0; y--) {
+			column += parent[y * stride + column];
+			seam[y - 1] = column;
+		}
+		return seam;
+	}
+
+	/**
+	 * Removes a seam from the picture and updates the energy and
+	 * 	cumulative cost of the pixels around it.
+	 *
+	 * @param seam The x-coordinate of the seam in each row, as returned
+	 * 	by findSeam().
+	 */
+	public void removeSeam(int[] seam) {
+		// Shift everything right of the seam one to the left.
+		for (int y = 0; y < height; y++) {
+			int from = y * stride + seam[y] + 1;
+			int length = width - seam[y] - 1;
+			System.arraycopy(pixels, from, pixels, from - 1, length);
+			System.arraycopy(luminosity, from, luminosity, from - 1, length);
+			System.arraycopy(energy, from, energy, from - 1, length);
+			System.arraycopy(cost, from, cost, from - 1, length);
+			System.arraycopy(parent, from, parent, from - 1, length);
+		}
+		width--;
+		if (width == 0)
+			return;
+
+		for (int y = 0; y < height; y++)
+			updateEnergy(y, seam);
+		updateCost(seam);
+	}
+
+	/**
+	 * Recomputes the energy of the pixels in row y whose side or vertical
+	 * 	neighbor changed when the seam was removed. Those are the pixel just
+	 * 	left of the seam, the pixel that moved into the last column (it is
+	 * 	compared with the pixel to its left), and the pixels between the seam
+	 * 	in this row and the seam in the row it is compared with.
+	 */
+	private void updateEnergy(int y, int[] seam) {
+		int neighbor = y < height - 1 ? y + 1 : y - 1;
+		int low = seam[y] - 1;
+		int high = seam[y] < width - 1 ? seam[y] - 1 : seam[y];
+		if (neighbor >= 0) {
+			low = Math.min(low, Math.min(seam[y], seam[neighbor]));
+			high = Math.max(high, Math.max(seam[y], seam[neighbor]) - 1);
+		}
+		low = Math.max(low, 0);
+		high = Math.min(high, width - 1);
+
+		int offset = y * stride;
+		int verticalOffset = neighbor < 0 ? -1 : neighbor * stride;
+		for (int x = low; x <= high; x++) {
+			int here = luminosity[offset + x];
+			int side = x < width - 1 ? x + 1 : x - 1;
+			int horizontal = side < 0 ? 0
+					: Math.abs(luminosity[offset + side] - here);
+			int vertical = verticalOffset < 0 ? 0
+					: Math.abs(luminosity[verticalOffset + x] - here);
+			energy[offset + x] = horizontal + vertical;
+		}
+	}
+
+	/**
+	 * Recomputes the cumulative cost after a seam was removed. In each row
+	 * 	this covers the pixels whose energy may have changed, the pixels whose
+	 * 	neighbors above were shifted differently from themselves, and the
+	 * 	pixels below any cost that changed in the row above.
+	 */
+	private void updateCost(int[] seam) {
+		// Range of columns whose cost changed in the previous row.
+		int changedLow = Integer.MAX_VALUE;
+		int changedHigh = Integer.MIN_VALUE;
+
+		for (int y = 0; y < height; y++) {
+			int low = seam[y] - 1;
+			int high = seam[y];
+			if (y < height - 1) {
+				low = Math.min(low, Math.min(seam[y], seam[y + 1]));
+				high = Math.max(high, Math.max(seam[y], seam[y + 1]));
+			}
+			if (y > 0) {
+				low = Math.min(low, Math.min(seam[y], seam[y - 1]) - 1);
+				high = Math.max(high, Math.max(seam[y], seam[y - 1]));
+			}
+			if (changedLow <= changedHigh) {
+				low = Math.min(low, changedLow - 1);
+				high = Math.max(high, changedHigh + 1);
+			}
+			low = Math.max(low, 0);
+			high = Math.min(high, width - 1);
+
+			changedLow = Integer.MAX_VALUE;
+			changedHigh = Integer.MIN_VALUE;
+			int offset = y * stride;
+			for (int x = low; x <= high; x++) {
+				int old = cost[offset + x];
+				relax(y, x);
+				if (cost[offset + x] != old) {
+					changedLow = Math.min(changedLow, x);
+					changedHigh = x;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the cumulative cost and parent of the pixels in columns
+	 * 	low to high of row y.
+	 */
+	private void relaxRow(int y, int low, int high) {
+		for (int x = low; x <= high; x++)
+			relax(y, x);
+	}
+
+	/**
+	 * Computes the cumulative cost and parent of the pixel at (x, y).
+	 */
+	private void relax(int y, int x) {
+		int index = y * stride;
+		if (y == 0) {
+			cost[index + x] = energy[index + x];
+			parent[index + x] = 0;
+			return;
+		}
+		relaxRange(energy, index, cost, index - stride, cost, index,
+				parent, index, x, x, width);
+	}
+
+	/**
+	 * Computes the cumulative cost and parent of columns low to high of one
+	 * 	row from its energy and the costs of the row above. If costs above
+	 * 	are equal, prefer top, then topLeft, lastly topRight.
+	 *
+	 * @param energy Array holding the energy of the row.
+	 * @param energyOffset Index of the row's first entry in energy.
+	 * @param above Array holding the cumulative costs of the row above.
+	 * @param aboveOffset Index of the first entry of the row above.
+	 * @param cost Array to store the row's cumulative costs in.
+	 * @param costOffset Index of the row's first entry in cost.
+	 * @param parent Array to store the row's parent offsets in.
+	 * @param parentOffset Index of the row's first entry in parent.
+	 * @param low The first column to compute.
+	 * @param high The last column to compute.
+	 * @param width The width of the row.
+	 */
+	static void relaxRange(int[] energy, int energyOffset, int[] above,
+			int aboveOffset, int[] cost, int costOffset, byte[] parent,
+			int parentOffset, int low, int high, int width) {
+		for (int x = low; x <= high; x++) {
+			int top = aboveOffset + x;
+			int min = above[top];
+			byte offset = 0;
+			if (x > 0 && above[top - 1] < min) {
+				min = above[top - 1];
+				offset = -1;
+			}
+			if (x < width - 1 && above[top + 1] < min) {
+				min = above[top + 1];
+				offset = 1;
+			}
+			cost[costOffset + x] = energy[energyOffset + x] + min;
+			parent[parentOffset + x] = offset;
+		}
+	}
+
+	/**
+	 * Computes the cumulative cost and parent of every pixel in a row when
+	 * 	seams are also charged for their steps between rows. Ties are broken
+	 * 	the same way as in relaxRange.
+	 *
+	 * @param energy Array holding the energy of the row.
+	 * @param energyOffset Index of the row's first entry in energy.
+	 * @param above Array holding the cumulative costs of the row above.
+	 * @param cost Array to store the row's cumulative costs in.
+	 * @param parent Array to store the row's parent offsets in.
+	 * @param parentOffset Index of the row's first entry in parent.
+	 * @param left Cost of reaching each pixel from above and to the left.
+	 * @param up Cost of reaching each pixel from straight above.
+	 * @param right Cost of reaching each pixel from above and to the right.
+	 * @param width The width of the row.
+	 */
+	static void relaxSteps(int[] energy, int energyOffset, int[] above,
+			int[] cost, byte[] parent, int parentOffset, int[] left, int[] up,
+			int[] right, int width) {
+		for (int x = 0; x < width; x++) {
+			int min = above[x] + up[x];
+			byte offset = 0;
+			if (x > 0 && above[x - 1] + left[x] < min) {
+				min = above[x - 1] + left[x];
+				offset = -1;
+			}
+			if (x < width - 1 && above[x + 1] + right[x] < min) {
+				min = above[x + 1] + right[x];
+				offset = 1;
+			}
+			cost[x] = energy[energyOffset + x] + min;
+			parent[parentOffset + x] = offset;
+		}
+	}
+
+	/**
+	 * Runs the tasks for one band of rows and waits for all of them.
+	 */
+	private static class BandGroup extends RecursiveAction
+	{
+		private static final long serialVersionUID = 0;
+
+		/** The tasks to run. */
+		private List<BandTask> tasks;
+
+		public BandGroup(List<BandTask> tasks) {
+			this.tasks = tasks;
+		}
+
+		protected void compute() {
+			invokeAll(tasks);
+		}
+	}
+
+	/**
+	 * Computes the cumulative costs and parents of columns low to high for
+	 * 	rows top to bottom - 1, from the costs of row top - 1.
+	 */
+	private static class BandTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 0;
+
+		private int[] energy;
+		private int width;
+		private int top;
+		private int bottom;
+		private int[] above;
+		private int[] next;
+		private byte[] parent;
+		private int low;
+		private int high;
+
+		/**
+		 * @param energy The energy plane, in row-major order.
+		 * @param width The width of the plane.
+		 * @param top The first row to compute.
+		 * @param bottom One past the last row to compute.
+		 * @param above The costs of row top - 1.
+		 * @param next Array to store the costs of row bottom - 1 in.
+		 * @param parent The parent offsets of the whole plane.
+		 * @param low The first column this task is responsible for.
+		 * @param high The last column this task is responsible for.
+		 */
+		public BandTask(int[] energy, int width, int top, int bottom,
+				int[] above, int[] next, byte[] parent, int low, int high) {
+			this.energy = energy;
+			this.width = width;
+			this.top = top;
+			this.bottom = bottom;
+			this.above = above;
+			this.next = next;
+			this.parent = parent;
+			this.low = low;
+			this.high = high;
+		}
+
+		protected void compute() {
+			// Start wide enough that the range still covers low to high
+			// after narrowing by one column per row on each side.
+			int rows = bottom - top;
+			int base = Math.max(0, low - rows);
+			int first = base;
+			int last = Math.min(width - 1, high + rows);
+			int span = last - base + 1;
+			int[] previous = new int[span];
+			int[] current = new int[span];
+			byte[] scratch = new byte[span];
+			System.arraycopy(above, base, previous, 0, span);
+
+			for (int y = top; y < bottom; y++) {
+				// Columns next to the picture's edges do not need a margin.
+				if (first > 0)
+					first++;
+				if (last < width - 1)
+					last--;
+				int offset = y * width;
+				// Margin columns go to scratch; only low to high are kept.
+				if (first < low)
+					relaxRange(energy, offset, previous, -base, current, -base,
+							scratch, -base, first, low - 1, width);
+				relaxRange(energy, offset, previous, -base, current, -base,
+						parent, offset, low, high, width);
+				if (last > high)
+					relaxRange(energy, offset, previous, -base, current, -base,
+							scratch, -base, high + 1, last, width);
+				int[] swap = previous;
+				previous = current;
+				current = swap;
+			}
+			System.arraycopy(previous, low - base, next, low, high - low + 1);
+		}
+	}
+
+	/**
+	 * @return A new Picture holding the pixels of the picture as it is now.
+	 */
+	public Picture toPicture() {
+		int[] result = getPixels();
+		// Never hand the carver's own plane to the picture.
+		return new Picture(width, height, result == pixels ? result.clone() : result);
+	}
+
+	/**
+	 * @return The color values of the picture as it is now, in row-major
+	 * 	order with a stride of the current width.
+	 */
+	public int[] getPixels() {
+		if (width == stride)
+			return pixels;
+		int[] result = new int[width * height];
+		for (int y = 0; y < height; y++)
+			System.arraycopy(pixels, y * stride, result, y * width, width);
+		return result;
+	}
+
+} // End of SeamCarver class
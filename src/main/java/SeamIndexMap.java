@@ -0,0 +1,202 @@
+/**
+ * Records the order in which vertical seam carving removes the pixels of a
+ * 	picture, in the style of the seam index map of Avidan and Shamir. The
+ * 	map is built once by removing seams until one column is left. After
+ * 	that, the picture carved to any width from its own width down to 1 is
+ * 	read straight out of the map in one pass, with no seam search.
+ *
+ * The picture for a width w is exactly what Picture.carveMany(W - w)
+ * 	returns, where W is the width of the original picture.
+ *
+ * A map of only the first k seams is enough to carve down to W - k, and
+ * 	also to enlarge the picture to W + k by doubling those k seams.
+ */
+public class SeamIndexMap
+{
+
+	//////////////////////////////// Fields ///////////////////////////////////
+
+	/** Width of the original picture. */
+	private int width;
+
+	/** Height of the original picture. */
+	private int height;
+
+	/** Number of seams recorded in the map. */
+	private int numSeams;
+
+	/** Color value of each pixel of the original picture, in row-major order. */
+	private int[] pixels;
+
+	/**
+	 * Number of the seam that removed each pixel, in row-major order. The
+	 * 	pixels left after the last seam get the number numSeams.
+	 */
+	private int[] seamIndex;
+
+	//////////////////////////// Constructors /////////////////////////////////
+
+	/**
+	 * Builds the seam index map of the SimplePicture provided. This removes
+	 * 	width - 1 seams, so it takes about as long as carving the picture
+	 * 	down to one column. The SimplePicture itself is not changed.
+	 *
+	 * @param picture The SimplePicture to build the map for.
+	 */
+	public SeamIndexMap(SimplePicture picture) {
+		this(picture, picture.getWidth() - 1);
+	}
+
+	/**
+	 * Builds the seam index map of the first numSeams seams of the
+	 * 	SimplePicture provided. The SimplePicture itself is not changed.
+	 *
+	 * @param picture The SimplePicture to build the map for.
+	 * @param numSeams The number of seams to record, less than the width.
+	 */
+	public SeamIndexMap(SimplePicture picture, int numSeams) {
+		this.width = picture.getWidth();
+		this.height = picture.getHeight();
+		this.numSeams = numSeams;
+		if (numSeams < 0 || numSeams >= width)
+			throw new IllegalArgumentException("Cannot record " + numSeams
+					+ " seams of a picture of width " + width);
+		this.pixels = picture.getRegion(0, 0, width, height,
+				new int[width * height]);
+		this.seamIndex = new int[width * height];
+
+		// The original column of the pixel now at each position; shifted
+		// along with the carver's planes as seams are removed.
+		int[] columns = new int[width * height];
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++)
+				columns[y * width + x] = x;
+
+		SeamCarver carver = new SeamCarver(pixels.clone(), width, height);
+		for (int seamNumber = 0; seamNumber < numSeams; seamNumber++) {
+			int[] seam = carver.findSeam();
+			int remaining = carver.getWidth();
+			for (int y = 0; y < height; y++) {
+				int offset = y * width;
+				seamIndex[offset + columns[offset + seam[y]]] = seamNumber;
+				System.arraycopy(columns, offset + seam[y] + 1, columns,
+						offset + seam[y], remaining - seam[y] - 1);
+			}
+			carver.removeSeam(seam);
+		}
+		int remaining = carver.getWidth();
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < remaining; x++)
+				seamIndex[y * width + columns[y * width + x]] = numSeams;
+	}
+
+	////////////////////////////////// Methods ////////////////////////////////
+
+	/**
+	 * @return The width of the original picture.
+	 */
+	public int getWidth() { return width; }
+
+	/**
+	 * @return The height of the original picture.
+	 */
+	public int getHeight() { return height; }
+
+	/**
+	 * @return The number of seams recorded in the map.
+	 */
+	public int getNumSeams() { return numSeams; }
+
+	/**
+	 * @param x The x-coordinate of the pixel in the original picture.
+	 * @param y The y-coordinate of the pixel in the original picture.
+	 *
+	 * @return The number of the seam that removes the pixel at (x, y),
+	 * 	counting from 0; getNumSeams() for the pixels that are never removed.
+	 */
+	public int getSeamIndex(int x, int y) {
+		return seamIndex[y * width + x];
+	}
+
+	/**
+	 * Fills in the pixels of the picture carved to the width provided.
+	 *
+	 * @param newWidth The width to carve to, from width - getNumSeams() to
+	 * 	the original width.
+	 * @param target The array to store the pixels in, in row-major order;
+	 * 	it must hold at least newWidth * height values.
+	 *
+	 * @return target.
+	 */
+	public int[] carve(int newWidth, int[] target) {
+		if (newWidth < width - numSeams || newWidth > width)
+			throw new IllegalArgumentException("Cannot carve a picture of width "
+					+ width + " to width " + newWidth);
+
+		// Pixels removed by the first width - newWidth seams are dropped.
+		int removed = width - newWidth;
+		int i = 0;
+		for (int offset = 0; offset < seamIndex.length; offset++)
+			if (seamIndex[offset] >= removed)
+				target[i++] = pixels[offset];
+		return target;
+	}
+
+	/**
+	 * @param newWidth The width to carve to, from width - getNumSeams() to
+	 * 	the original width.
+	 *
+	 * @return A new Picture holding the picture carved to newWidth.
+	 */
+	public Picture toPicture(int newWidth) {
+		return new Picture(newWidth, height, carve(newWidth, new int[newWidth * height]));
+	}
+
+	/**
+	 * Fills in the pixels of the picture enlarged by doubling every seam in
+	 * 	the map. Each pixel on a seam is replaced by two pixels: the average
+	 * 	of it and its left neighbor, then the average of it and its right
+	 * 	neighbor. Pixels at the edges use themselves as the missing neighbor.
+	 *
+	 * @param target The array to store the pixels in, in row-major order;
+	 * 	it must hold at least (width + getNumSeams()) * height values.
+	 *
+	 * @return target.
+	 */
+	public int[] enlarge(int[] target) {
+		int i = 0;
+		for (int y = 0; y < height; y++) {
+			int offset = y * width;
+			for (int x = 0; x < width; x++) {
+				int value = pixels[offset + x];
+				if (seamIndex[offset + x] < numSeams) {
+					int left = x > 0 ? pixels[offset + x - 1] : value;
+					int right = x < width - 1 ? pixels[offset + x + 1] : value;
+					target[i++] = average(left, value);
+					target[i++] = average(value, right);
+				} else {
+					target[i++] = value;
+				}
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * @return A new Picture holding the picture enlarged by doubling every
+	 * 	seam in the map.
+	 */
+	public Picture toEnlargedPicture() {
+		return new Picture(width + numSeams, height,
+				enlarge(new int[(width + numSeams) * height]));
+	}
+
+	/**
+	 * @return The average of each channel of two color values, rounded
+	 * 	down, computed on all four channels at once.
+	 */
+	private static int average(int first, int second) {
+		return (first & second) + (((first ^ second) & 0xfefefefe) >>> 1);
+	}
+
+} // End of SeamIndexMap class
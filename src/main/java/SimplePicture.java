@@ -3,6 +3,9 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.geom.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
 import java.io.*;
 
 /**
@@ -39,6 +42,20 @@ public class SimplePicture
 	 */
 	private BufferedImage bufferedImage;
 
+	/**
+	 * The int array backing bufferedImage, one packed pixel per element in
+	 * 	row-major order (index = y * width + x). This is the live data of the
+	 * 	BufferedImage, so writes here show up in getImage() without a copy.
+	 */
+	private int[] pixels;
+
+	/**
+	 * Bits ORed into every value read from pixels. For TYPE_INT_RGB images
+	 * 	the top eight bits are not stored, so this is 0xff000000 to report
+	 * 	an opaque alpha; for TYPE_INT_ARGB images it is 0.
+	 */
+	private int alphaFill;
+
 	/**
 	 * PictureFrame used to display the SimplePicture.
 	 */
@@ -83,8 +100,8 @@ public class SimplePicture
 	 * @param height The desired height.
 	 */
 	public SimplePicture(int width, int height) {
-		bufferedImage = new BufferedImage(width, height,
-				BufferedImage.TYPE_INT_RGB);
+		setBufferedImage(new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB));
 		title = "No current picture" + projectName;
 //		fileName = "None";
 		extension = "jpg";
@@ -105,6 +122,30 @@ public class SimplePicture
 		setAllPixelsToAColor(theColor);
 	}
 
+	/**
+	 * A constructor that takes the width and height desired for a picture
+	 * 	and the color values of its pixels, packed as red, green, blue in
+	 * 	row-major order. The array is not copied: it becomes the pixel data
+	 * 	of a TYPE_INT_RGB BufferedImage, so the picture is not filled with a
+	 * 	background color first.
+	 * 
+	 * @param width The desired width.
+	 * @param height The desired height.
+	 * @param pixels The color values; exactly width * height of them.
+	 */
+	public SimplePicture(int width, int height, int[] pixels) {
+		if (pixels.length != width * height)
+			throw new IllegalArgumentException("Expected " + width * height
+					+ " pixels but got " + pixels.length);
+		DirectColorModel model = new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
+		setBufferedImage(new BufferedImage(model,
+				Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length),
+						width, height, width, model.getMasks(), null),
+				false, null));
+		title = "No current picture" + projectName;
+		extension = "jpg";
+	}
+
 	/**
 	 * A constructor that takes another SimplePicture to copy information from.
 	 * 
@@ -122,8 +163,8 @@ public class SimplePicture
 
 		if (copyPicture.bufferedImage != null)
 		{
-			this.bufferedImage = new BufferedImage(copyPicture.getWidth(),
-					copyPicture.getHeight(), BufferedImage.TYPE_INT_RGB);
+			this.setBufferedImage(new BufferedImage(copyPicture.getWidth(),
+					copyPicture.getHeight(), BufferedImage.TYPE_INT_RGB));
 			this.copyPicture(copyPicture);
 		}
 	}
@@ -145,27 +186,35 @@ public class SimplePicture
 
 	/**
 	 * Copies all of the source SimplePicture provided into the
-	 * 	current SimplePicture object.
+	 * 	current SimplePicture object. If the two pictures are of different
+	 * 	sizes, only the area they have in common, aligned at the top left
+	 * 	corner (0, 0), is copied. The alpha of this SimplePicture is kept.
 	 *  
 	 * @param sourcePicture The SimplePicture object to copy.
 	 */
 	public void copyPicture(SimplePicture sourcePicture) {
-		Pixel sourcePixel = null;
-		Pixel targetPixel = null;
-
-		// Loop through the columns
-		for (int sourceX = 0, targetX = 0; 
-		sourceX < sourcePicture.getWidth() && targetX < this.getWidth();
-		sourceX++, targetX++) {
-			// Loop through the rows
-			for (int sourceY = 0, targetY = 0; 
-			sourceY < sourcePicture.getHeight() && 
-			targetY < this.getHeight();
-			sourceY++, targetY++)
+		int sourceWidth = sourcePicture.getWidth();
+		int targetWidth = this.getWidth();
+		int copyWidth = Math.min(sourceWidth, targetWidth);
+		int copyHeight = Math.min(sourcePicture.getHeight(), this.getHeight());
+		int[] source = sourcePicture.pixels;
+
+		// Copy one row at a time.
+		for (int y = 0; y < copyHeight; y++)
+		{
+			int sourceIndex = y * sourceWidth;
+			int targetIndex = y * targetWidth;
+			if (!this.hasAlpha())
+			{
+				// Without an alpha channel the top 8 bits are ignored.
+				System.arraycopy(source, sourceIndex, pixels, targetIndex,
+						copyWidth);
+			}
+			else
 			{
-				sourcePixel = sourcePicture.getPixel(sourceX, sourceY);
-				targetPixel = this.getPixel(targetX, targetY);
-				targetPixel.setColor(sourcePixel.getColor());
+				for (int x = 0; x < copyWidth; x++)
+					pixels[targetIndex + x] = (pixels[targetIndex + x] & 0xff000000)
+							| (source[sourceIndex + x] & 0x00ffffff);
 			}
 		}
 		this.copyFilenameFromPicture(sourcePicture);
@@ -177,15 +226,11 @@ public class SimplePicture
 	 * @param color The Color to set to.
 	 */
 	public void setAllPixelsToAColor(Color color) {
-		// Loop through all x.
-		for (int x = 0; x < this.getWidth(); x++)
-		{
-			// Loop through all y.
-			for (int y = 0; y < this.getHeight(); y++)
-			{
-				getPixel(x, y).setColor(color);
-			}
-		}
+		int rgb = color.getRGB() & 0x00ffffff;
+
+		// Loop through every pixel, keeping its alpha.
+		for (int i = 0; i < pixels.length; i++)
+			pixels[i] = (pixels[i] & 0xff000000) | rgb;
 	}
 
 	/**
@@ -264,6 +309,150 @@ public class SimplePicture
 		return bufferedImage;
 	}
 
+	/**
+	 * Uses the BufferedImage provided to hold the pixels for this
+	 * 	SimplePicture. The image must be of TYPE_INT_RGB or TYPE_INT_ARGB.
+	 * 
+	 * @param image The BufferedImage to use.
+	 */
+	private void setBufferedImage(BufferedImage image) {
+		this.bufferedImage = image;
+		this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		this.alphaFill = image.getColorModel().hasAlpha() ? 0 : 0xff000000;
+	}
+
+	/**
+	 * Converts the BufferedImage provided into one backed by a packed int
+	 * 	array. Images that are already TYPE_INT_RGB or TYPE_INT_ARGB are
+	 * 	returned as they are; any other image is copied into a new
+	 * 	TYPE_INT_ARGB image if it has an alpha channel, or into a new
+	 * 	TYPE_INT_RGB image otherwise.
+	 * 
+	 * @param image The BufferedImage to convert.
+	 * 
+	 * @return A BufferedImage with the same pixels as image.
+	 */
+	private static BufferedImage toIntRaster(BufferedImage image) {
+		int type = image.getType();
+		if (type == BufferedImage.TYPE_INT_RGB
+				|| type == BufferedImage.TYPE_INT_ARGB)
+			return image;
+
+		int width = image.getWidth();
+		int height = image.getHeight();
+		BufferedImage result = new BufferedImage(width, height,
+				image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB
+						: BufferedImage.TYPE_INT_RGB);
+		int[] data = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
+		image.getRGB(0, 0, width, height, data, 0, width);
+		return result;
+	}
+
+	/**
+	 * Returns the live pixel data of this SimplePicture. Pixels are packed
+	 * 	as alpha, red, green, blue (8 bits each) in row-major order, so the
+	 * 	pixel at (x, y) is at index y * getWidth() + x. Writes to the array
+	 * 	change this SimplePicture directly.
+	 * 
+	 * If the picture has no alpha channel the top eight bits of each element
+	 * 	are ignored and may hold anything; use getBasicPixel, getRow, or
+	 * 	getRegion to read values with the alpha filled in.
+	 * 
+	 * @return The int array backing this SimplePicture.
+	 */
+	public int[] getRasterData() {
+		return pixels;
+	}
+
+	/**
+	 * @return True, if this SimplePicture stores an alpha channel; false,
+	 * 	if every pixel is opaque.
+	 */
+	public boolean hasAlpha() {
+		return alphaFill == 0;
+	}
+
+	/**
+	 * Copies one row of pixels into the array provided.
+	 * 
+	 * @param y The y-coordinate of the row.
+	 * @param row The array to fill; it must hold at least getWidth() values.
+	 * 
+	 * @return The array provided, holding the packed pixel values of the row.
+	 */
+	public int[] getRow(int y, int[] row) {
+		return getRegion(0, y, getWidth(), 1, row);
+	}
+
+	/**
+	 * Sets one row of pixels from the array provided.
+	 * 
+	 * @param y The y-coordinate of the row.
+	 * @param row The packed pixel values; it must hold at least getWidth()
+	 * 	values.
+	 */
+	public void setRow(int y, int[] row) {
+		setRegion(0, y, getWidth(), 1, row);
+	}
+
+	/**
+	 * Copies a rectangle of pixels into the array provided, in row-major
+	 * 	order with a stride of regionWidth.
+	 * 
+	 * @param x The leftmost x-coordinate of the rectangle.
+	 * @param y The topmost y-coordinate of the rectangle.
+	 * @param regionWidth The width of the rectangle.
+	 * @param regionHeight The height of the rectangle.
+	 * @param region The array to fill; it must hold at least
+	 * 	regionWidth * regionHeight values.
+	 * 
+	 * @return The array provided, holding the packed pixel values.
+	 */
+	public int[] getRegion(int x, int y, int regionWidth, int regionHeight,
+			int[] region) {
+		checkRegion(x, y, regionWidth, regionHeight);
+		int width = getWidth();
+		for (int row = 0; row < regionHeight; row++) {
+			int from = (y + row) * width + x;
+			int to = row * regionWidth;
+			for (int i = 0; i < regionWidth; i++)
+				region[to + i] = pixels[from + i] | alphaFill;
+		}
+		return region;
+	}
+
+	/**
+	 * Sets a rectangle of pixels from the array provided, which holds
+	 * 	packed pixel values in row-major order with a stride of regionWidth.
+	 * 
+	 * @param x The leftmost x-coordinate of the rectangle.
+	 * @param y The topmost y-coordinate of the rectangle.
+	 * @param regionWidth The width of the rectangle.
+	 * @param regionHeight The height of the rectangle.
+	 * @param region The packed pixel values.
+	 */
+	public void setRegion(int x, int y, int regionWidth, int regionHeight,
+			int[] region) {
+		checkRegion(x, y, regionWidth, regionHeight);
+		int width = getWidth();
+		for (int row = 0; row < regionHeight; row++)
+			System.arraycopy(region, row * regionWidth,
+					pixels, (y + row) * width + x, regionWidth);
+	}
+
+	/**
+	 * Throws an ArrayIndexOutOfBoundsException if the rectangle provided
+	 * 	does not lie inside this SimplePicture.
+	 */
+	private void checkRegion(int x, int y, int regionWidth, int regionHeight) {
+		if (x < 0 || y < 0 || regionWidth < 0 || regionHeight < 0
+				|| x + regionWidth > getWidth()
+				|| y + regionHeight > getHeight())
+			throw new ArrayIndexOutOfBoundsException("Region (" + x + ", " + y
+					+ ", " + regionWidth + ", " + regionHeight
+					+ ") is out of bounds!");
+	}
+
 	/**
 	 * @param x The x-coordinate of the pixel.
 	 * @param y The y-coordinate of the pixel.
@@ -272,7 +461,8 @@ public class SimplePicture
 	 * 	blue, each occupying 8 bits each.
 	 */
 	public int getBasicPixel(int x, int y) {
-		return bufferedImage.getRGB(x, y);
+		checkRegion(x, y, 1, 1);
+		return pixels[y * getWidth() + x] | alphaFill;
 	}
 
 	/** 
@@ -283,7 +473,8 @@ public class SimplePicture
 	 * @param rgb The new RGB value of the pixel (alpha, red, green, blue).
 	 */     
 	public void setBasicPixel(int x, int y, int rgb) {
-		bufferedImage.setRGB(x, y, rgb);
+		checkRegion(x, y, 1, 1);
+		pixels[y * getWidth() + x] = rgb;
 	}
 
 	/**
@@ -404,7 +595,7 @@ public class SimplePicture
 					" could not be opened. " +
 			"Check to see that you can read to the directory.");
 
-		bufferedImage = ImageIO.read(file);
+		setBufferedImage(toIntRaster(ImageIO.read(file)));
 	}
 
 	/**
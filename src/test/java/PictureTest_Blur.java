@@ -0,0 +1,67 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class PictureTest_Blur {
+	/*
+	 * Helper that blurs one pixel by averaging every pixel of the square
+	 * around it that exists, rounding down.
+	 */
+	private static int blurPixel(Picture pic, int x, int y, int blurThreshold)
+	{
+		int alpha = 0, red = 0, green = 0, blue = 0, count = 0;
+		for (int j = y - blurThreshold; j <= y + blurThreshold; j++) {
+			for (int i = x - blurThreshold; i <= x + blurThreshold; i++) {
+				if (i < 0 || j < 0 || i >= pic.getWidth() || j >= pic.getHeight()) {
+					continue;
+				}
+				int value = pic.getRasterData()[j * pic.getWidth() + i];
+				alpha += Pixel.getAlpha(value);
+				red += Pixel.getRed(value);
+				green += Pixel.getGreen(value);
+				blue += Pixel.getBlue(value);
+				count++;
+			}
+		}
+		return Pixel.colorValue(alpha / count, red / count, green / count, blue / count);
+	}
+
+	/*
+	 * Validate blur against an average over the whole square, for radii
+	 * from 0 to past the size of the picture.
+	 */
+	@Test
+	public void testBlur_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		for (int blurThreshold = 0; blurThreshold <= 12; blurThreshold++) {
+			Picture picTest		= pic.blur(blurThreshold);
+			assertTrue(pic.equals(picCopy));
+			for (int y = 0; y < pic.getHeight(); y++) {
+				for (int x = 0; x < pic.getWidth(); x++) {
+					assertEquals(blurPixel(pic, x, y, blurThreshold) & 0xffffff,
+							picTest.getBasicPixel(x, y) & 0xffffff);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Validate that a threshold far larger than the picture, up to the
+	 * largest int, blurs the same as one just as large as the picture.
+	 */
+	@Test
+	public void testBlurHugeThreshold()
+	{
+		String[] names = { "Tiny.bmp", "Creek.bmp" };
+		for (String name : names) {
+			Picture pic 		= Picture.loadPicture(name);
+			Picture picCorrect	= pic.blur(Math.max(pic.getWidth(), pic.getHeight()));
+			assertTrue(picCorrect.equals(pic.blur(Integer.MAX_VALUE)));
+			assertTrue(picCorrect.equals(pic.blur(Integer.MAX_VALUE - 3)));
+			assertTrue(picCorrect.equals(pic.blur(100000)));
+		}
+	}
+}
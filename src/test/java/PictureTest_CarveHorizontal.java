@@ -0,0 +1,78 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+
+public class PictureTest_CarveHorizontal {
+	/*
+	 * Helper that returns a copy of a Picture flipped about its
+	 * backward diagonal, so rows become columns.
+	 */
+	private static Picture transposed(Picture pic)
+	{
+		Picture result = new Picture(pic.getHeight(), pic.getWidth());
+		int[] pixels = pic.getRegion(0, 0, pic.getWidth(), pic.getHeight(),
+				new int[pic.getWidth() * pic.getHeight()]);
+		Rotation.transpose(pixels, pic.getWidth(), pic.getHeight(), result.getRasterData());
+		return result;
+	}
+
+	/*
+	 * Validate that the horizontal seam of a Picture is the vertical
+	 * seam of its transpose.
+	 */
+	@Test
+	public void testComputeHorizontalSeam_Okinawa()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa.bmp");
+		String correctSeam 	= Arrays.toString(transposed(pic).computeSeam());
+		assertEquals(correctSeam, Arrays.toString(pic.computeHorizontalSeam()));
+	}
+
+	/*
+	 * Validate that carveHorizontal works and does not modify the 
+	 * original Picture object.
+	 */
+	@Test
+	public void testCarveHorizontal_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= transposed(transposed(pic).carve());
+		Picture picTest		= pic.carveHorizontal();
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that carveManyHorizontal works and does not modify the 
+	 * original Picture object.
+	 */
+	@Test
+	public void testCarveManyHorizontal5_Camel()
+	{
+		Picture pic 		= Picture.loadPicture("Camel.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= transposed(transposed(pic).carveMany(5));
+		Picture picTest		= pic.carveManyHorizontal(5);
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that carveManyHorizontal removes the same seams as
+	 * calling carveHorizontal repeatedly.
+	 */
+	@Test
+	public void testCarveManyHorizontal_MatchesCarveHorizontal_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCorrect	= new Picture(pic);
+		for (int numSeams = 1; numSeams < pic.getHeight(); numSeams++) {
+			picCorrect = picCorrect.carveHorizontal();
+			assertTrue(picCorrect.equals(pic.carveManyHorizontal(numSeams)));
+		}
+	}
+}
@@ -86,4 +86,58 @@ public class PictureTest_CarveMany {
 		assertTrue(picCorrect.equals(picTest));
 	}
 
+	/*
+	 * Validate that carveMany removes the same seams as calling
+	 * carve repeatedly, for every number of seams.
+	 */
+	@Test
+	public void testCarveMany_MatchesCarve_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCorrect	= new Picture(pic);
+		for (int numSeams = 1; numSeams < pic.getWidth(); numSeams++) {
+			picCorrect = picCorrect.carve();
+			assertTrue(picCorrect.equals(pic.carveMany(numSeams)));
+		}
+	}
+
+	/*
+	 * Validate that batches of one seam give the same picture as
+	 * carveMany, and that larger batches give the right size without
+	 * modifying the original Picture object.
+	 */
+	@Test
+	public void testCarveManyInBatches_Camel()
+	{
+		Picture pic 		= Picture.loadPicture("Camel.bmp");
+		Picture picCopy 	= new Picture(pic);
+		assertTrue(pic.carveMany(5).equals(pic.carveManyInBatches(5, 1)));
+		Picture picTest		= pic.carveManyInBatches(50, 8);
+		assertTrue(pic.equals(picCopy));
+		assertEquals(pic.getWidth() - 50, picTest.getWidth());
+		assertEquals(pic.getHeight(), picTest.getHeight());
+	}
+
+	/*
+	 * Validate that one batch removes the cheapest seam, as carve does,
+	 * along with other seams.
+	 */
+	@Test
+	public void testCarveManyInBatches_KeepsCheapestSeam_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		int[] seam 			= pic.computeSeam();
+		Picture picTest		= pic.carveManyInBatches(2, 2);
+		for (int y = 0; y < pic.getHeight(); y++) {
+			int x = 0;
+			for (int xPic = 0; xPic < pic.getWidth(); xPic++) {
+				if (xPic != seam[y] && x < picTest.getWidth()
+						&& pic.getBasicPixel(xPic, y) == picTest.getBasicPixel(x, y)) {
+					x++;
+				}
+			}
+			assertEquals(picTest.getWidth(), x);
+		}
+	}
+
 }
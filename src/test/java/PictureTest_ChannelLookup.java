@@ -0,0 +1,63 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class PictureTest_ChannelLookup {
+	/*
+	 * Validate that adding to every channel matches clamping each channel
+	 * of every color to between 0 and 255.
+	 */
+	@Test
+	public void testAdd_AllColors()
+	{
+		ChannelLookup lookup	= ChannelLookup.add(40, -300, 0);
+		for (int value = 0; value < 1 << 24; value += 7) {
+			int color 		= 0x80000000 | value;
+			int expected 	= Pixel.colorValue(0x80,
+					Pixel.correctValue(Pixel.getRed(color) + 40),
+					Pixel.correctValue(Pixel.getGreen(color) - 300),
+					Pixel.getBlue(color));
+			assertEquals(expected, lookup.apply(color));
+		}
+	}
+
+	/*
+	 * Validate that the negate lookup gives the same Picture as negate().
+	 */
+	@Test
+	public void testNegate_Maria1()
+	{
+		Picture pic 		= Picture.loadPicture("Maria1.bmp");
+		Picture picCorrect	= Picture.loadPicture("Maria1_negate.bmp");
+		Picture picTest		= new Picture(pic);
+		ChannelLookup.negate().apply(picTest);
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that combining lookups with then() gives the same Picture
+	 * as applying them one after the other.
+	 */
+	@Test
+	public void testThen_Creek()
+	{
+		Picture pic 		= Picture.loadPicture("Creek.bmp");
+		Picture picCorrect	= pic.lighten(50).addRed(-80).negate();
+		Picture picTest		= new Picture(pic);
+		ChannelLookup.add(50, 50, 50).then(ChannelLookup.add(-80, 0, 0))
+				.then(ChannelLookup.negate()).apply(picTest);
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that tables with values out of range are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTableOutOfRange()
+	{
+		int[] table 		= new int[256];
+		table[3] 			= 256;
+		new ChannelLookup(table, table, table);
+	}
+}
@@ -194,4 +194,21 @@ public class PictureTest_ColorChange {
 		assertTrue(picCorrect.equals(picTest));
 	}
 
+	/*
+	 * Validate that the grayscale kernel averages every color exactly and
+	 * keeps the alpha.
+	 */
+	@Test
+	public void testGrayscaleKernel_AllColors() {
+		int[] pixels = new int[0x1000000];
+		for (int value = 0; value < pixels.length; value++) {
+			pixels[value] = 0x80000000 | value;
+		}
+		PixelKernels.grayscale(pixels, 0, pixels.length);
+		for (int value = 0; value < pixels.length; value++) {
+			int average = (Pixel.getRed(value) + Pixel.getGreen(value) + Pixel.getBlue(value)) / 3;
+			assertEquals(Pixel.colorValue(0x80, average, average, average), pixels[value]);
+		}
+	}
+
 }
@@ -0,0 +1,43 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class PictureTest_ColorDistance {
+	/*
+	 * Validate that the squared distance limits decide "distance <
+	 * threshold" and "(int) distance > threshold" exactly as the square
+	 * root does, for every squared distance that can occur.
+	 */
+	@Test
+	public void testLimits_AllDistances()
+	{
+		int[] thresholds 	= { Integer.MIN_VALUE, -5, -1, 0, 1, 2, 29, 30, 100, 441, 442, 1000, Integer.MAX_VALUE };
+		for (int threshold : thresholds) {
+			long below 		= Pixel.distanceLimitBelow(threshold);
+			long above 		= Pixel.distanceLimitAbove(threshold);
+			for (int squared = 0; squared <= 3 * 255 * 255; squared++) {
+				double distance = Math.sqrt(squared);
+				assertEquals(distance < threshold, squared < below);
+				assertEquals((int) distance > threshold, squared >= above);
+			}
+		}
+	}
+
+	/*
+	 * Validate the squared distance against colorDistance, ignoring alpha.
+	 */
+	@Test
+	public void testColorDistanceSquared_Random()
+	{
+		Random random 		= new Random(23);
+		for (int i = 0; i < 100000; i++) {
+			int first 		= random.nextInt();
+			int second 		= random.nextInt();
+			double distance = Pixel.colorDistance(first, second);
+			assertEquals(distance * distance, Pixel.colorDistanceSquared(first, second), 1e-6);
+		}
+	}
+}
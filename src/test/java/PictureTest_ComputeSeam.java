@@ -1,6 +1,7 @@
 import static org.junit.Assert.*;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
@@ -165,4 +166,54 @@ public class PictureTest_ComputeSeam {
         }
     }
 
-}
\ No newline at end of file
+    /*
+     * Check that the parallel seam search finds the same seam as the
+     * sequential one on Camel.bmp
+     */
+    @Test
+    public void testComputeSeam_Parallel_Camel(){
+        Picture pic = Picture.loadPicture("Camel.bmp");
+        int[] energy = new EnergyMap(pic).getEnergyData();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        int[] parallelSeam = SeamCarver.findSeam(energy, pic.getWidth(), pic.getHeight(), pool);
+        pool.shutdown();
+        assertEquals(Arrays.toString(pic.computeSeam()), Arrays.toString(parallelSeam));
+    }
+
+    /*
+     * Check that a band far wider than the picture, up to the largest int,
+     * finds the exact seam instead of overflowing
+     */
+    @Test
+    public void testComputeSeamCoarseToFine_HugeBand(){
+        String[] names = { "Okinawa_tiny.bmp", "Okinawa.bmp" };
+        for (String name : names){
+            Picture pic = Picture.loadPicture(name);
+            String exactSeam = Arrays.toString(pic.computeSeam());
+            assertEquals(exactSeam, Arrays.toString(pic.computeSeamCoarseToFine(1, Integer.MAX_VALUE)));
+            assertEquals(exactSeam, Arrays.toString(pic.computeSeamCoarseToFine(3, 1 << 20)));
+        }
+    }
+
+    /*
+     * Check that the coarse-to-fine search finds the exact seam when the
+     * band covers the whole picture, and a connected seam otherwise
+     */
+    @Test
+    public void testComputeSeamCoarseToFine_Okinawa(){
+        Picture pic = Picture.loadPicture("Okinawa.bmp");
+        String exactSeam = Arrays.toString(pic.computeSeam());
+        assertEquals(exactSeam, Arrays.toString(pic.computeSeamCoarseToFine(0, 1)));
+        assertEquals(exactSeam, Arrays.toString(pic.computeSeamCoarseToFine(2, pic.getWidth())));
+
+        int[] seam = pic.computeSeamCoarseToFine(2, 2);
+        assertEquals(pic.getHeight(), seam.length);
+        for (int i = 0; i < seam.length; i++){
+            assertTrue(seam[i] >= 0 && seam[i] < pic.getWidth());
+            if (i > 0){
+                assertTrue("Seam breaks at index " + i, Math.abs(seam[i] - seam[i - 1]) <= 1);
+            }
+        }
+    }
+
+}
@@ -85,4 +85,41 @@ public class PictureTest_Energy {
 		assertTrue(picCorrect.equals(picTest));
 	}
 
+	/*
+	 * Validate that the fixed-point luminosity matches the
+	 * floating-point formula for every color.
+	 */
+	@Test
+	public void testLuminosity_AllColors()
+	{
+		for (int value = 0; value <= 0xffffff; value++) {
+			int r = Pixel.getRed(value);
+			int g = Pixel.getGreen(value);
+			int b = Pixel.getBlue(value);
+			assertEquals((int) (r * 0.21 + g * 0.72 + b * 0.07),
+					EnergyMap.luminosity(value));
+		}
+	}
+
+	/*
+	 * Validate the bulk luminosity kernel against the floating-point
+	 * formula for every color.
+	 */
+	@Test
+	public void testLuminosityKernel_AllColors()
+	{
+		int[] pixels = new int[0x1000000];
+		for (int value = 0; value < pixels.length; value++) {
+			pixels[value] = value;
+		}
+		int[] luminosity = new int[pixels.length];
+		PixelKernels.luminosity(pixels, luminosity, 0, pixels.length);
+		for (int value = 0; value < pixels.length; value++) {
+			int r = Pixel.getRed(value);
+			int g = Pixel.getGreen(value);
+			int b = Pixel.getBlue(value);
+			assertEquals((int) (r * 0.21 + g * 0.72 + b * 0.07), luminosity[value]);
+		}
+	}
+
 }
@@ -0,0 +1,138 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+
+public class PictureTest_EnergyFunction {
+	/*
+	 * Helper that finds the forward-energy seam with a full table of
+	 * costs, preferring top, then topLeft, lastly topRight.
+	 */
+	private static int[] forwardSeam(Picture pic)
+	{
+		int width = pic.getWidth();
+		int height = pic.getHeight();
+		int[][] lum = new int[height][width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				lum[y][x] = EnergyMap.luminosity(pic.getBasicPixel(x, y));
+			}
+		}
+		int[][] cost = new int[height][width];
+		int[][] from = new int[height][width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int west = lum[y][Math.max(x - 1, 0)];
+				int east = lum[y][Math.min(x + 1, width - 1)];
+				int up = Math.abs(east - west);
+				if (y == 0) {
+					cost[y][x] = up;
+					continue;
+				}
+				int north = lum[y - 1][x];
+				int best = cost[y - 1][x] + up;
+				from[y][x] = x;
+				if (x > 0 && cost[y - 1][x - 1] + up + Math.abs(north - west) < best) {
+					best = cost[y - 1][x - 1] + up + Math.abs(north - west);
+					from[y][x] = x - 1;
+				}
+				if (x < width - 1 && cost[y - 1][x + 1] + up + Math.abs(north - east) < best) {
+					best = cost[y - 1][x + 1] + up + Math.abs(north - east);
+					from[y][x] = x + 1;
+				}
+				cost[y][x] = best;
+			}
+		}
+		int[] seam = new int[height];
+		for (int x = 1; x < width; x++) {
+			if (cost[height - 1][x] < cost[height - 1][seam[height - 1]]) {
+				seam[height - 1] = x;
+			}
+		}
+		for (int y = height - 1; y > 0; y--) {
+			seam[y - 1] = from[y][seam[y]];
+		}
+		return seam;
+	}
+
+	/*
+	 * Helper that returns a copy of a Picture without the seam given.
+	 */
+	private static Picture removeSeam(Picture pic, int[] seam)
+	{
+		Picture result = new Picture(pic.getWidth() - 1, pic.getHeight());
+		for (int y = 0; y < result.getHeight(); y++) {
+			for (int x = 0; x < result.getWidth(); x++) {
+				int sourceX = x < seam[y] ? x : x + 1;
+				result.setBasicPixel(x, y, pic.getBasicPixel(sourceX, y));
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Validate that the backward energy function gives the same seam
+	 * and carving as computeSeam and carveMany.
+	 */
+	@Test
+	public void testBackward_Camel()
+	{
+		Picture pic 		= Picture.loadPicture("Camel.bmp");
+		assertEquals(Arrays.toString(pic.computeSeam()),
+				Arrays.toString(pic.computeSeam(EnergyFunction.BACKWARD)));
+		assertTrue(pic.carveMany(5).equals(pic.carveMany(5, EnergyFunction.BACKWARD)));
+	}
+
+	/*
+	 * Validate the forward energy seam against a full table of costs.
+	 */
+	@Test
+	public void testForward_Okinawa()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa.bmp");
+		assertEquals(Arrays.toString(forwardSeam(pic)),
+				Arrays.toString(pic.computeSeam(EnergyFunction.FORWARD)));
+	}
+
+	/*
+	 * Validate that carveMany with forward energy removes one forward
+	 * seam at a time and does not modify the original Picture object.
+	 */
+	@Test
+	public void testCarveManyForward_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= pic;
+		for (int i = 0; i < 5; i++) {
+			picCorrect = removeSeam(picCorrect, forwardSeam(picCorrect));
+		}
+		Picture picTest		= pic.carveMany(5, EnergyFunction.FORWARD);
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that the gradient magnitude is never more than the
+	 * backward energy, and equals it where only one direction changes.
+	 */
+	@Test
+	public void testGradientMagnitude_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		EnergyMap map 		= new EnergyMap(pic);
+		int[] magnitude 	= new int[pic.getWidth() * pic.getHeight()];
+		EnergyFunction.GRADIENT_MAGNITUDE.computeEnergy(map.getLuminosityData(),
+				magnitude, pic.getWidth(), pic.getHeight());
+		for (int y = 0; y < pic.getHeight(); y++) {
+			for (int x = 0; x < pic.getWidth(); x++) {
+				int backward = map.getEnergy(x, y);
+				int value = magnitude[y * pic.getWidth() + x];
+				assertTrue(value <= backward);
+				assertTrue(value >= backward / 2);
+			}
+		}
+	}
+}
@@ -0,0 +1,82 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class PictureTest_Enlarge {
+	/*
+	 * Helper that averages each channel of two colors, rounding down.
+	 */
+	private static int average(int first, int second)
+	{
+		return Pixel.colorValue(
+				(Pixel.getAlpha(first) + Pixel.getAlpha(second)) / 2,
+				(Pixel.getRed(first) + Pixel.getRed(second)) / 2,
+				(Pixel.getGreen(first) + Pixel.getGreen(second)) / 2,
+				(Pixel.getBlue(first) + Pixel.getBlue(second)) / 2);
+	}
+
+	/*
+	 * Validate that enlarging by one seam doubles the seam from
+	 * computeSeam, and does not modify the original Picture object.
+	 */
+	@Test
+	public void testEnlarge1_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		int[] seam 			= pic.computeSeam();
+		Picture picTest		= pic.enlarge(1);
+		assertTrue(pic.equals(picCopy));
+		assertEquals(pic.getWidth() + 1, picTest.getWidth());
+		assertEquals(pic.getHeight(), picTest.getHeight());
+
+		int lastX = pic.getWidth() - 1;
+		for (int y = 0; y < pic.getHeight(); y++) {
+			int s = seam[y];
+			int value = pic.getBasicPixel(s, y);
+			int left = pic.getBasicPixel(Math.max(s - 1, 0), y);
+			int right = pic.getBasicPixel(Math.min(s + 1, lastX), y);
+			for (int x = 0; x < s; x++) {
+				assertEquals(pic.getBasicPixel(x, y), picTest.getBasicPixel(x, y));
+			}
+			assertEquals(average(left, value), picTest.getBasicPixel(s, y));
+			assertEquals(average(value, right), picTest.getBasicPixel(s + 1, y));
+			for (int x = s + 1; x <= lastX; x++) {
+				assertEquals(pic.getBasicPixel(x, y), picTest.getBasicPixel(x + 1, y));
+			}
+		}
+	}
+
+	/*
+	 * Validate that enlarging by many seams keeps every pixel that is
+	 * not on one of them, in order.
+	 */
+	@Test
+	public void testEnlarge20_Camel()
+	{
+		Picture pic 		= Picture.loadPicture("Camel.bmp");
+		Picture picCarved 	= pic.carveMany(20);
+		Picture picTest		= pic.enlarge(20);
+		assertEquals(pic.getWidth() + 20, picTest.getWidth());
+		for (int y = 0; y < pic.getHeight(); y++) {
+			int x = 0;
+			for (int xTest = 0; xTest < picTest.getWidth() && x < picCarved.getWidth(); xTest++) {
+				if (picTest.getBasicPixel(xTest, y) == picCarved.getBasicPixel(x, y)) {
+					x++;
+				}
+			}
+			assertEquals(picCarved.getWidth(), x);
+		}
+	}
+
+	/*
+	 * Validate that enlarge rejects as many seams as the width.
+	 */
+	@Test
+	public void testEnlarge_TooMany()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		assertNull(pic.enlarge(pic.getWidth()));
+	}
+}
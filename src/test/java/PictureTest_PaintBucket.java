@@ -0,0 +1,111 @@
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.util.ArrayDeque;
+
+import org.junit.Test;
+
+
+public class PictureTest_PaintBucket {
+	/*
+	 * Helper that paints the region around (x, y) one pixel at a time,
+	 * breadth first, using Pixel.colorDistance.
+	 */
+	private static Picture paintReference(Picture pic, int x, int y, int threshold, Color newColor)
+	{
+		Picture result 		= new Picture(pic);
+		int width 			= pic.getWidth();
+		int height 			= pic.getHeight();
+		int selected 		= pic.getBasicPixel(x, y);
+		boolean[] seen 		= new boolean[width * height];
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		queue.add(y * width + x);
+		seen[y * width + x] = true;
+		while (!queue.isEmpty()) {
+			int i = queue.poll();
+			int value = pic.getBasicPixel(i % width, i / width);
+			if (Pixel.colorDistance(selected, value) >= threshold) {
+				continue;
+			}
+			result.setBasicPixel(i % width, i / width,
+					(value & 0xff000000) | (newColor.getRGB() & 0xffffff));
+			int[] next = { i % width > 0 ? i - 1 : -1, i % width < width - 1 ? i + 1 : -1,
+					i >= width ? i - width : -1, i < width * (height - 1) ? i + width : -1 };
+			for (int n : next) {
+				if (n >= 0 && !seen[n]) {
+					seen[n] = true;
+					queue.add(n);
+				}
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Validate paintBucket against a breadth-first fill for several
+	 * starting points and thresholds.
+	 */
+	@Test
+	public void testPaintBucket_Okinawa()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa.bmp");
+		Picture picCopy 	= new Picture(pic);
+		int[][] starts 		= { { 0, 0 }, { pic.getWidth() / 2, pic.getHeight() / 2 },
+				{ pic.getWidth() - 1, pic.getHeight() - 1 } };
+		int[] thresholds 	= { 0, 1, 15, 40, 120 };
+		for (int[] start : starts) {
+			for (int threshold : thresholds) {
+				Picture picCorrect	= paintReference(pic, start[0], start[1], threshold, Color.MAGENTA);
+				Picture picTest		= pic.paintBucket(start[0], start[1], threshold, Color.MAGENTA);
+				assertTrue(picCorrect.equals(picTest));
+			}
+		}
+		assertTrue(pic.equals(picCopy));
+	}
+
+	/*
+	 * Validate that a uniform 10 megapixel picture is filled completely,
+	 * including a new color equal to the old one.
+	 */
+	@Test
+	public void testPaintBucket_Large()
+	{
+		int width 			= 4000;
+		int height 			= 2500;
+		Picture pic 		= new Picture(width, height, new int[width * height]);
+		Picture picTest		= pic.paintBucket(1234, 987, 1, Color.RED);
+		assertEquals(Color.RED.getRGB(), picTest.getBasicPixel(0, 0));
+		assertEquals(Color.RED.getRGB(), picTest.getBasicPixel(width - 1, height - 1));
+
+		FloodFill fill 		= new FloodFill();
+		int[] pixels 		= new int[width * height];
+		assertEquals(width * height, fill.fill(pixels, width, height, 0, 0, 1, 0));
+	}
+
+	/*
+	 * Validate that each thread keeps one FloodFill for paintBucket to reuse,
+	 * and that reusing it after a larger fill still paints correctly.
+	 */
+	@Test
+	public void testFloodFillReuse() throws InterruptedException
+	{
+		FloodFill fill 		= FloodFill.forCurrentThread();
+		assertSame(fill, FloodFill.forCurrentThread());
+
+		final FloodFill[] other = new FloodFill[1];
+		Thread thread 		= new Thread() {
+			public void run() {
+				other[0] = FloodFill.forCurrentThread();
+			}
+		};
+		thread.start();
+		thread.join();
+		assertNotNull(other[0]);
+		assertNotSame(fill, other[0]);
+
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		new Picture(300, 200, new int[300 * 200]).paintBucket(10, 10, 1, Color.RED);
+		Picture picCorrect	= paintReference(pic, 1, 1, 60, Color.BLUE);
+		assertTrue(picCorrect.equals(pic.paintBucket(1, 1, 60, Color.BLUE)));
+	}
+}
@@ -0,0 +1,56 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class PictureTest_Pipeline {
+	/*
+	 * Validate that a chain of point filters gives the same Picture as
+	 * calling the filters one after another, and does not modify the
+	 * original Picture object.
+	 */
+	@Test
+	public void testPointFilters_Creek()
+	{
+		Picture pic 		= Picture.loadPicture("Creek.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= pic.grayscale().lighten(20).negate().addRed(-30)
+				.luminosity().darken(15).addBlue(60).addGreen(7);
+		Picture picTest		= pic.pipeline().grayscale().lighten(20).negate()
+				.addRed(-30).luminosity().darken(15).addBlue(60).addGreen(7)
+				.toPicture();
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that point filters around filters that use neighboring
+	 * pixels give the same Picture as calling them one after another.
+	 */
+	@Test
+	public void testNeighborhoodFilters_Okinawa()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa.bmp");
+		Picture picCorrect	= pic.negate().blur(2).grayscale().showEdges(10)
+				.lighten(40).energy().addRed(5);
+		Picture picTest		= pic.pipeline().negate().blur(2).grayscale()
+				.showEdges(10).lighten(40).energy().addRed(5).toPicture();
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that a Picture returned by toPicture is not changed by
+	 * filters added to the pipeline afterwards.
+	 */
+	@Test
+	public void testToPictureIsKept_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		PicturePipeline pipeline	= pic.pipeline().negate();
+		Picture first 		= pipeline.toPicture();
+		Picture firstCopy 	= new Picture(first);
+		Picture second 		= pipeline.lighten(50).toPicture();
+		assertTrue(first.equals(firstCopy));
+		assertTrue(pic.negate().lighten(50).equals(second));
+	}
+}
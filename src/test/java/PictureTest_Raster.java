@@ -0,0 +1,131 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class PictureTest_Raster {
+	/*
+	 * Validate that getRow returns the same values as getBasicPixel,
+	 * with an opaque alpha for a picture loaded from a bmp.
+	 */
+	@Test
+	public void testGetRow_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		int[] row 			= new int[pic.getWidth()];
+		for (int y = 0; y < pic.getHeight(); y++) {
+			pic.getRow(y, row);
+			for (int x = 0; x < pic.getWidth(); x++) {
+				assertEquals(pic.getBasicPixel(x, y), row[x]);
+				assertEquals(255, row[x] >>> 24);
+			}
+		}
+	}
+
+	/*
+	 * Validate that setRegion writes through to the image and
+	 * that getRegion reads the same values back.
+	 */
+	@Test
+	public void testSetRegion_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		int[] region 		= new int[3 * 2];
+		for (int i = 0; i < region.length; i++) {
+			region[i] = 0xff000000 | (i * 40);
+		}
+		pic.setRegion(2, 1, 3, 2, region);
+		assertArrayEquals(region, pic.getRegion(2, 1, 3, 2, new int[3 * 2]));
+		assertEquals(0xff000000 | 40, pic.getBufferedImage().getRGB(3, 1));
+		assertEquals(picCopy.getBasicPixel(1, 1), pic.getBasicPixel(1, 1));
+	}
+
+	/*
+	 * Validate that regions outside of the Picture are rejected.
+	 */
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testGetRegion_OutOfBounds()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		pic.getRegion(1, 0, pic.getWidth(), 1, new int[pic.getWidth()]);
+	}
+
+	/*
+	 * Validate that one Pixel moved across the Picture sees the same
+	 * colors as a new Pixel at each location.
+	 */
+	@Test
+	public void testPixelMoveTo_Micro()
+	{
+		Picture pic 		= Picture.loadPicture("Micro.bmp");
+		Pixel cursor 		= new Pixel(pic, 0, 0);
+		for (int y = 0; y < pic.getHeight(); y++) {
+			for (int x = 0; x < pic.getWidth(); x++) {
+				cursor.moveTo(x, y);
+				assertEquals(x, cursor.getX());
+				assertEquals(y, cursor.getY());
+				assertTrue(cursor.equals(pic.getPixel(x, y)));
+			}
+		}
+	}
+
+	/*
+	 * Validate that the packed color helpers agree with the
+	 * per-channel getters.
+	 */
+	@Test
+	public void testColorValue()
+	{
+		int value = Pixel.colorValue(12, 34, 56, 78);
+		assertEquals(12, Pixel.getAlpha(value));
+		assertEquals(34, Pixel.getRed(value));
+		assertEquals(56, Pixel.getGreen(value));
+		assertEquals(78, Pixel.getBlue(value));
+		assertEquals(5.0, Pixel.colorDistance(Pixel.colorValue(255, 3, 4, 0),
+				Pixel.colorValue(0, 0, 0, 0)), 0.0);
+	}
+
+	/*
+	 * Validate that copyPicture into a smaller Picture copies only the
+	 * top left corner and leaves the source unchanged.
+	 */
+	@Test
+	public void testCopyPicture_Cropped()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picTest 	= new Picture(pic.getWidth() - 3, pic.getHeight() - 2);
+		picTest.copyPicture(pic);
+		assertTrue(pic.equals(picCopy));
+		for (int y = 0; y < picTest.getHeight(); y++) {
+			for (int x = 0; x < picTest.getWidth(); x++) {
+				assertEquals(pic.getBasicPixel(x, y), picTest.getBasicPixel(x, y));
+			}
+		}
+	}
+
+	/*
+	 * Validate that a Picture made from an array of color values uses
+	 * that array as its pixels, without a background fill.
+	 */
+	@Test
+	public void testPictureFromPixels()
+	{
+		int[] pixels 		= { 0x102030, 0x405060, 0x708090, 0xa0b0c0, 0xd0e0f0, 0x010203 };
+		Picture pic 		= new Picture(3, 2, pixels);
+		assertEquals(java.awt.image.BufferedImage.TYPE_INT_RGB, pic.getBufferedImage().getType());
+		assertSame(pixels, pic.getRasterData());
+		assertEquals(0xff708090, pic.getBasicPixel(2, 0));
+		assertEquals(0xffd0e0f0, pic.getBufferedImage().getRGB(1, 1));
+	}
+
+	/*
+	 * Validate that the array of color values must fill the Picture.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testPictureFromPixels_WrongLength()
+	{
+		new Picture(3, 2, new int[5]);
+	}
+}
@@ -0,0 +1,153 @@
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+
+public class PictureTest_RegionLabels {
+	/*
+	 * Helper that labels regions breadth first, numbering them in the
+	 * order of their first pixel, joining neighbors whose color distance
+	 * is less than the threshold.
+	 */
+	private static int[] labelReference(Picture pic, int threshold)
+	{
+		int width 			= pic.getWidth();
+		int height 			= pic.getHeight();
+		int[] labels 		= new int[width * height];
+		Arrays.fill(labels, -1);
+		int next 			= 0;
+		for (int start = 0; start < labels.length; start++) {
+			if (labels[start] >= 0) {
+				continue;
+			}
+			ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+			queue.add(start);
+			labels[start] = next;
+			while (!queue.isEmpty()) {
+				int i = queue.poll();
+				int value = pic.getBasicPixel(i % width, i / width);
+				int[] neighbors = { i % width > 0 ? i - 1 : -1, i % width < width - 1 ? i + 1 : -1,
+						i >= width ? i - width : -1, i < width * (height - 1) ? i + width : -1 };
+				for (int n : neighbors) {
+					if (n >= 0 && labels[n] < 0
+							&& Pixel.colorDistance(value, pic.getBasicPixel(n % width, n / width)) < threshold) {
+						labels[n] = next;
+						queue.add(n);
+					}
+				}
+			}
+			next++;
+		}
+		return labels;
+	}
+
+	/*
+	 * Validate the labels against a breadth-first labeling, sequentially
+	 * and with the rows split into tiles on several threads.
+	 */
+	@Test
+	public void testLabel_Okinawa()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa.bmp");
+		for (int threshold : new int[] { 0, 5, 20 }) {
+			int[] correct 		= labelReference(pic, threshold);
+			assertArrayEquals(correct, pic.labelRegions(threshold).getLabels());
+
+			RowBands.setParallelThreshold(0);
+			RowBands.setParallelism(3);
+			try {
+				assertArrayEquals(correct, pic.labelRegions(threshold).getLabels());
+			} finally {
+				RowBands.setPool(ForkJoinPool.commonPool());
+				RowBands.setParallelThreshold(1 << 18);
+			}
+		}
+	}
+
+	/*
+	 * Validate the area, bounds and mean color of every region.
+	 */
+	@Test
+	public void testStatistics_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		RegionLabels regions	= pic.labelRegions(30);
+		int total 			= 0;
+		for (int region = 0; region < regions.getRegionCount(); region++) {
+			int area = 0;
+			long red = 0;
+			Rectangle bounds = regions.getBounds(region);
+			for (int y = 0; y < pic.getHeight(); y++) {
+				for (int x = 0; x < pic.getWidth(); x++) {
+					if (regions.getLabel(x, y) == region) {
+						area++;
+						red += Pixel.getRed(pic.getBasicPixel(x, y));
+						assertTrue(bounds.contains(x, y));
+					}
+				}
+			}
+			assertEquals(area, regions.getArea(region));
+			assertEquals(red / area, Pixel.getRed(regions.getMeanColor(region)));
+			total += area;
+		}
+		assertEquals(pic.getWidth() * pic.getHeight(), total);
+	}
+
+	/*
+	 * Validate that the matching regions are the regions the flood fill
+	 * paints, and that pixels that do not match are in no region.
+	 */
+	@Test
+	public void testLabelMatching_Maria1()
+	{
+		Picture pic 		= Picture.loadPicture("Maria1.bmp");
+		int[] pixels 		= pic.getRasterData();
+		int selected 		= pixels[54 * pic.getWidth() + 118];
+		RegionLabels regions	= RegionLabels.labelMatching(pixels, pic.getWidth(),
+				pic.getHeight(), selected, 30);
+
+		int[] filled 		= pixels.clone();
+		int count 			= new FloodFill().fill(filled, pic.getWidth(), pic.getHeight(),
+				118, 54, 30, ~selected);
+		int region 			= regions.getLabel(118, 54);
+		assertEquals(count, regions.getArea(region));
+		for (int i = 0; i < pixels.length; i++) {
+			assertEquals(filled[i] != pixels[i], regions.getLabels()[i] == region);
+			if (Pixel.colorDistance(selected, pixels[i]) >= 30) {
+				assertEquals(-1, regions.getLabels()[i]);
+			}
+		}
+	}
+
+	/*
+	 * Validate that painting with regions labeled once gives the same
+	 * Pictures as paintBucket.
+	 */
+	@Test
+	public void testPaintBucketWithRegions_Maria1()
+	{
+		Picture pic 		= Picture.loadPicture("Maria1.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= Picture.loadPicture("Maria_paintBucket.bmp");
+		Color green 		= new Color(0, 255, 0);
+		RegionLabels regions	= pic.labelBucketRegions(118, 54, 30);
+		assertTrue(picCorrect.equals(pic.paintBucket(118, 54, regions, green)));
+
+		int selected 		= pic.getBasicPixel(118, 54);
+		for (int y = 0; y < pic.getHeight(); y += 7) {
+			for (int x = 0; x < pic.getWidth(); x += 7) {
+				if (pic.getBasicPixel(x, y) == selected) {
+					assertTrue(pic.paintBucket(x, y, 30, green).equals(
+							pic.paintBucket(x, y, regions, green)));
+				}
+			}
+		}
+		assertTrue(pic.equals(picCopy));
+	}
+}
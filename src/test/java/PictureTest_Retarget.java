@@ -0,0 +1,160 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class PictureTest_Retarget {
+	/*
+	 * Helper that returns the total energy of a vertical seam.
+	 */
+	private static int verticalCost(Picture pic, int[] seam)
+	{
+		EnergyMap map = new EnergyMap(pic);
+		int cost = 0;
+		for (int y = 0; y < seam.length; y++) {
+			cost += map.getEnergy(seam[y], y);
+		}
+		return cost;
+	}
+
+	/*
+	 * Helper that returns the total energy of a horizontal seam.
+	 */
+	private static int horizontalCost(Picture pic, int[] seam)
+	{
+		EnergyMap map = new EnergyMap(pic);
+		int cost = 0;
+		for (int x = 0; x < seam.length; x++) {
+			cost += map.getEnergy(x, seam[x]);
+		}
+		return cost;
+	}
+
+	/*
+	 * Validate that retargeting only the width is carveMany.
+	 */
+	@Test
+	public void testRetarget_WidthOnly_Camel()
+	{
+		Picture pic 		= Picture.loadPicture("Camel.bmp");
+		Picture picCorrect	= pic.carveMany(20);
+		Picture picTest		= pic.retarget(pic.getWidth() - 20, pic.getHeight());
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that retargeting only the height is carveManyHorizontal.
+	 */
+	@Test
+	public void testRetarget_HeightOnly_Okinawa()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa.bmp");
+		Picture picCorrect	= pic.carveManyHorizontal(10);
+		Picture picTest		= pic.retarget(pic.getWidth(), pic.getHeight() - 10);
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that the greedy order removes the cheaper seam at each
+	 * step and does not modify the original Picture object.
+	 */
+	@Test
+	public void testRetarget_Greedy_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= pic;
+		int targetWidth		= pic.getWidth() - 3;
+		int targetHeight	= pic.getHeight() - 3;
+		while (picCorrect.getWidth() > targetWidth || picCorrect.getHeight() > targetHeight) {
+			int vertical = picCorrect.getWidth() > targetWidth
+					? verticalCost(picCorrect, picCorrect.computeSeam()) : Integer.MAX_VALUE;
+			int horizontal = picCorrect.getHeight() > targetHeight
+					? horizontalCost(picCorrect, picCorrect.computeHorizontalSeam()) : Integer.MAX_VALUE;
+			if (vertical <= horizontal) {
+				picCorrect = picCorrect.carve();
+			} else {
+				picCorrect = picCorrect.carveHorizontal();
+			}
+		}
+		Picture picTest		= pic.retarget(targetWidth, targetHeight);
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that the transport map finds an order of seams with the
+	 * lowest total cost, by trying every order of two vertical and two
+	 * horizontal seams.
+	 */
+	@Test
+	public void testRetarget_TransportMap_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picTest		= pic.retarget(pic.getWidth() - 2, pic.getHeight() - 2,
+				Retargeter.TRANSPORT_MAP);
+		assertTrue(pic.equals(picCopy));
+		assertEquals(pic.getWidth() - 2, picTest.getWidth());
+		assertEquals(pic.getHeight() - 2, picTest.getHeight());
+
+		String[] orders = {"VVHH", "VHVH", "VHHV", "HVVH", "HVHV", "HHVV"};
+		int bestCost = Integer.MAX_VALUE;
+		boolean matchesBest = false;
+		for (String order : orders) {
+			Picture current = pic;
+			int cost = 0;
+			for (char step : order.toCharArray()) {
+				if (step == 'V') {
+					cost += verticalCost(current, current.computeSeam());
+					current = current.carve();
+				} else {
+					cost += horizontalCost(current, current.computeHorizontalSeam());
+					current = current.carveHorizontal();
+				}
+			}
+			if (cost < bestCost) {
+				bestCost = cost;
+				matchesBest = false;
+			}
+			if (cost == bestCost && current.equals(picTest)) {
+				matchesBest = true;
+			}
+		}
+		assertTrue(matchesBest);
+	}
+
+	/*
+	 * Validate that retarget rejects sizes larger than the Picture.
+	 */
+	@Test
+	public void testRetarget_TooLarge()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		assertNull(pic.retarget(pic.getWidth() + 1, pic.getHeight()));
+	}
+
+	/*
+	 * Validate that retarget rejects orders other than GREEDY and
+	 * TRANSPORT_MAP instead of running GREEDY.
+	 */
+	@Test
+	public void testRetarget_UnknownOrder()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		int[] orders 		= { 0, 3, -1 };
+		for (int order : orders) {
+			assertNull(pic.retarget(pic.getWidth() - 1, pic.getHeight(), order));
+
+			Retargeter retargeter = new Retargeter(pic);
+			boolean rejected 	= false;
+			try {
+				retargeter.retarget(pic.getWidth() - 1, pic.getHeight(), order);
+			} catch (IllegalArgumentException e) {
+				rejected = true;
+			}
+			assertTrue(rejected);
+			assertEquals(pic.getWidth(), retargeter.getWidth());
+		}
+	}
+}
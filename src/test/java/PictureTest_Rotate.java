@@ -1,5 +1,7 @@
 import static org.junit.Assert.*;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.junit.Test;
 
 
@@ -91,6 +93,88 @@ public class PictureTest_Rotate {
 		assertTrue(picCorrect.equals(picTest));
 	}
 
+	/*
+	 * Validate that rotateLeft matches rotating right three times and does
+	 * not modify the original Picture object.
+	 */
+	@Test
+	public void testRotateLeft_Logos()
+	{
+		Picture pic 		= Picture.loadPicture("Logos.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= Picture.loadPicture("Logos_rotateRight_thrice.bmp");
+		Picture picTest		= pic.rotateLeft();
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+	/*
+	 * Validate that rotateLeft matches rotating right three times and does
+	 * not modify the original Picture object.
+	 */
+	@Test
+	public void testRotateLeft_Maria()
+	{
+		Picture pic 		= Picture.loadPicture("Maria1.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= Picture.loadPicture("Maria1_rotateRight_thrice.bmp");
+		Picture picTest		= pic.rotateLeft();
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
 
+	/*
+	 * Validate that rotate180 matches rotating right twice and does not
+	 * modify the original Picture object.
+	 */
+	@Test
+	public void testRotate180_Logos()
+	{
+		Picture pic 		= Picture.loadPicture("Logos.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= Picture.loadPicture("Logos_rotateRight_twice.bmp");
+		Picture picTest		= pic.rotate180();
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+	/*
+	 * Validate that rotate180 matches rotating right twice and does not
+	 * modify the original Picture object.
+	 */
+	@Test
+	public void testRotate180_Maria()
+	{
+		Picture pic 		= Picture.loadPicture("Maria1.bmp");
+		Picture picCopy 	= new Picture(pic);
+		Picture picCorrect	= Picture.loadPicture("Maria1_rotateRight_twice.bmp");
+		Picture picTest		= pic.rotate180();
+		assertTrue(pic.equals(picCopy));
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that turning bands of rows on several threads gives the same
+	 * Pictures as the fixtures, and that a turn and its opposite give back
+	 * the original.
+	 */
+	@Test
+	public void testRotateBanded_Maria()
+	{
+		Picture pic 		= Picture.loadPicture("Maria1.bmp");
+		Picture picCopy 	= new Picture(pic);
+
+		RowBands.setParallelThreshold(0);
+		RowBands.setParallelism(3);
+		try {
+			assertTrue(Picture.loadPicture("Maria1_rotateRight_once.bmp").equals(pic.rotateRight()));
+			assertTrue(Picture.loadPicture("Maria1_rotateRight_twice.bmp").equals(pic.rotate180()));
+			assertTrue(Picture.loadPicture("Maria1_rotateRight_thrice.bmp").equals(pic.rotateLeft()));
+			assertTrue(pic.equals(pic.rotateRight().rotateLeft()));
+			assertTrue(pic.equals(pic.rotate180().rotate180()));
+		} finally {
+			RowBands.setPool(ForkJoinPool.commonPool());
+			RowBands.setParallelThreshold(1 << 18);
+		}
+		assertTrue(pic.equals(picCopy));
+	}
 
 }
@@ -0,0 +1,117 @@
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+
+public class PictureTest_RowBands {
+	/*
+	 * Helper that runs every banded filter on a Picture.
+	 */
+	private static Picture[] filterAll(Picture pic, Picture background)
+	{
+		return new Picture[] {
+				pic.grayscale(), pic.grayscale2(), pic.negate(),
+				pic.lighten(30), pic.darken(30), pic.addRed(40),
+				pic.addGreen(-40), pic.addBlue(300), pic.luminosity(),
+				pic.chromaKey(118, 54, background, 30), pic.showEdges(20) };
+	}
+
+	/*
+	 * Helper that puts the pool and threshold back to their defaults.
+	 */
+	private static void restoreDefaults()
+	{
+		RowBands.setPool(ForkJoinPool.commonPool());
+		RowBands.setParallelThreshold(1 << 18);
+	}
+
+	/*
+	 * Validate that splitting the rows into bands on several threads gives
+	 * the same Pictures as filtering them on one thread.
+	 */
+	@Test
+	public void testBandsMatchSequential_Maria1()
+	{
+		Picture pic 		= Picture.loadPicture("Maria1.bmp");
+		Picture background 	= Picture.loadPicture("HMC.bmp");
+		Picture picCopy 	= new Picture(pic);
+
+		RowBands.setParallelThreshold(Integer.MAX_VALUE);
+		Picture[] picCorrect	= filterAll(pic, background);
+
+		RowBands.setParallelThreshold(0);
+		RowBands.setParallelism(3);
+		Picture[] picTest;
+		try {
+			picTest			= filterAll(pic, background);
+		} finally {
+			restoreDefaults();
+		}
+
+		assertTrue(pic.equals(picCopy));
+		for (int i = 0; i < picCorrect.length; i++) {
+			assertTrue(picCorrect[i].equals(picTest[i]));
+		}
+	}
+
+	/*
+	 * Validate that pictures with fewer rows than one band are still
+	 * filtered completely.
+	 */
+	@Test
+	public void testShortPicture_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		RowBands.setParallelThreshold(Integer.MAX_VALUE);
+		Picture picCorrect	= pic.negate();
+		RowBands.setParallelThreshold(0);
+		Picture picTest;
+		try {
+			picTest			= pic.negate();
+		} finally {
+			restoreDefaults();
+		}
+		assertTrue(picCorrect.equals(picTest));
+	}
+
+	/*
+	 * Validate that asking for the same number of threads again reuses the
+	 * pool made the first time instead of starting another.
+	 */
+	@Test
+	public void testSetParallelismReusesPool()
+	{
+		try {
+			RowBands.setParallelism(3);
+			ForkJoinPool first 	= RowBands.getPool();
+			RowBands.setParallelism(2);
+			ForkJoinPool second = RowBands.getPool();
+			RowBands.setParallelism(3);
+			assertSame(first, RowBands.getPool());
+			assertEquals(3, first.getParallelism());
+			assertEquals(2, second.getParallelism());
+		} finally {
+			restoreDefaults();
+		}
+	}
+
+	/*
+	 * Validate that a single thread filters every picture in one band on the
+	 * calling thread, and that more threads split it into bands.
+	 */
+	@Test
+	public void testOneThreadIsSequential()
+	{
+		try {
+			RowBands.setParallelThreshold(0);
+			RowBands.setParallelism(1);
+			assertEquals(1, RowBands.bandCount(1000, 1000));
+			RowBands.setParallelism(3);
+			assertTrue(RowBands.bandCount(1000, 1000) > 1);
+		} finally {
+			restoreDefaults();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class PictureTest_SeamIndexMap {
+	/*
+	 * Validate that every width read out of the map matches carveMany
+	 * and that the original Picture object is not modified.
+	 */
+	@Test
+	public void testSeamIndexMap_AllWidths_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		SeamIndexMap map 	= new SeamIndexMap(pic);
+		assertTrue(pic.equals(picCopy));
+		for (int width = pic.getWidth(); width > 1; width--) {
+			Picture picCorrect 	= pic.carveMany(pic.getWidth() - width);
+			assertTrue(picCorrect.equals(map.toPicture(width)));
+		}
+		assertEquals(1, map.toPicture(1).getWidth());
+	}
+
+	/*
+	 * Validate a few widths of a larger Picture against carveMany.
+	 */
+	@Test
+	public void testSeamIndexMap_Camel()
+	{
+		Picture pic 		= Picture.loadPicture("Camel.bmp");
+		SeamIndexMap map 	= new SeamIndexMap(pic);
+		assertTrue(pic.carveMany(5).equals(map.toPicture(pic.getWidth() - 5)));
+		assertTrue(pic.carveMany(100).equals(map.toPicture(pic.getWidth() - 100)));
+	}
+
+	/*
+	 * Validate that each row removes exactly one pixel per seam.
+	 */
+	@Test
+	public void testSeamIndexMap_OnePixelPerSeam_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Tiny.bmp");
+		SeamIndexMap map 	= new SeamIndexMap(pic);
+		for (int y = 0; y < pic.getHeight(); y++) {
+			boolean[] seen = new boolean[pic.getWidth()];
+			for (int x = 0; x < pic.getWidth(); x++) {
+				int index = map.getSeamIndex(x, y);
+				assertFalse(seen[index]);
+				seen[index] = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,106 @@
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+
+public class PictureTest_ShowEdges {
+	/*
+	 * Helper that finds edges with a 3 by 3 kernel pixel by pixel, with
+	 * the gradient in doubles, replicating the pixels at the borders.
+	 */
+	private static Picture edgesReference(Picture pic, int threshold, int side, int center)
+	{
+		int width 			= pic.getWidth();
+		int height 			= pic.getHeight();
+		double scale 		= 2 * (2 * side + center);
+		int[] weights 		= { side, center, side };
+		Picture result 		= new Picture(width, height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double squared = 0;
+				for (int shift = 16; shift >= 0; shift -= 8) {
+					double gx = 0;
+					double gy = 0;
+					for (int k = -1; k <= 1; k++) {
+						int row = Math.min(Math.max(y + k, 0), height - 1);
+						int column = Math.min(Math.max(x + k, 0), width - 1);
+						int left = Math.max(x - 1, 0);
+						int right = Math.min(x + 1, width - 1);
+						int up = Math.max(y - 1, 0);
+						int down = Math.min(y + 1, height - 1);
+						gx += weights[k + 1] * (((pic.getBasicPixel(right, row) >> shift) & 0xff)
+								- ((pic.getBasicPixel(left, row) >> shift) & 0xff));
+						gy += weights[k + 1] * (((pic.getBasicPixel(column, down) >> shift) & 0xff)
+								- ((pic.getBasicPixel(column, up) >> shift) & 0xff));
+					}
+					squared += (gx / scale) * (gx / scale) + (gy / scale) * (gy / scale);
+				}
+				boolean edge = (int) Math.sqrt(squared) > threshold;
+				result.setBasicPixel(x, y, edge ? 0xff000000 : 0xffffffff);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Validate the Sobel and Scharr operators against a pixel by pixel
+	 * computation.
+	 */
+	@Test
+	public void testSobelScharr_Okinawa_Tiny()
+	{
+		Picture pic 		= Picture.loadPicture("Okinawa_tiny.bmp");
+		Picture picCopy 	= new Picture(pic);
+		for (int threshold : new int[] { -1, 0, 5, 12, 40 }) {
+			assertTrue(edgesReference(pic, threshold, 1, 2).equals(
+					pic.showEdges(threshold, EdgeOperator.SOBEL)));
+			assertTrue(edgesReference(pic, threshold, 3, 10).equals(
+					pic.showEdges(threshold, EdgeOperator.SCHARR)));
+		}
+		assertTrue(pic.equals(picCopy));
+	}
+
+	/*
+	 * Validate that every operator gives the same Picture when the rows
+	 * are split into bands on several threads.
+	 */
+	@Test
+	public void testBandsMatchSequential_SnowGeese()
+	{
+		Picture pic 		= Picture.loadPicture("SnowGeese.bmp");
+		EdgeOperator[] operators = { EdgeOperator.NEIGHBOR, EdgeOperator.SOBEL, EdgeOperator.SCHARR };
+		for (EdgeOperator operator : operators) {
+			RowBands.setParallelThreshold(Integer.MAX_VALUE);
+			Picture picCorrect	= pic.showEdges(20, operator);
+			RowBands.setParallelThreshold(0);
+			RowBands.setParallelism(3);
+			Picture picTest;
+			try {
+				picTest			= pic.showEdges(20, operator);
+			} finally {
+				RowBands.setPool(ForkJoinPool.commonPool());
+				RowBands.setParallelThreshold(1 << 18);
+			}
+			assertTrue(picCorrect.equals(picTest));
+		}
+	}
+
+	/*
+	 * Validate that the edges keep the file name and extension of the
+	 * original Picture, so Save As and the window title still use them.
+	 */
+	@Test
+	public void testKeepsFileName_SnowGeese()
+	{
+		Picture pic 		= Picture.loadPicture("SnowGeese.bmp");
+		EdgeOperator[] operators = { EdgeOperator.NEIGHBOR, EdgeOperator.SOBEL, EdgeOperator.SCHARR };
+		for (EdgeOperator operator : operators) {
+			Picture picTest		= pic.showEdges(20, operator);
+			assertEquals(pic.getFileName(), picTest.getFileName());
+			assertEquals(pic.getExtension(), picTest.getExtension());
+			assertEquals(pic.getTitle(), picTest.getTitle());
+		}
+	}
+}